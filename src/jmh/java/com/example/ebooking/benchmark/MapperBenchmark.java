@@ -0,0 +1,92 @@
+package com.example.ebooking.benchmark;
+
+import com.example.ebooking.dto.accommodation.AccommodationResponseDto;
+import com.example.ebooking.dto.booking.BookingResponseDto;
+import com.example.ebooking.mapper.AccommodationMapper;
+import com.example.ebooking.mapper.BookingMapper;
+import com.example.ebooking.mapper.impl.AccommodationMapperImpl;
+import com.example.ebooking.mapper.impl.BookingMapperImpl;
+import com.example.ebooking.model.Accommodation;
+import com.example.ebooking.model.Booking;
+import com.example.ebooking.model.User;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the generated MapStruct list mappings used by the booking and
+ * accommodation list endpoints for a page-sized and a large list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"20", "10000"})
+    private int size;
+
+    private final BookingMapper bookingMapper = new BookingMapperImpl();
+    private final AccommodationMapper accommodationMapper = new AccommodationMapperImpl();
+
+    private List<Booking> bookings;
+    private List<Accommodation> accommodations;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setFirstName("Bob");
+        user.setLastName("Smith");
+
+        bookings = new ArrayList<>(size);
+        accommodations = new ArrayList<>(size);
+        LocalDateTime checkIn = LocalDateTime.of(2030, 1, 1, 14, 0);
+        for (int i = 0; i < size; i++) {
+            Accommodation accommodation = new Accommodation();
+            accommodation.setId((long) i);
+            accommodation.setType(Accommodation.Type.APARTMENT);
+            accommodation.setLocation("Kyiv, Ukraine");
+            accommodation.setSize("60m");
+            accommodation.setAmenities(Set.of(Accommodation.Amenities.WiFi,
+                    Accommodation.Amenities.Parking));
+            accommodation.setDailyRate(BigDecimal.valueOf(100 + i % 50));
+            accommodation.setAvailability(3);
+            accommodations.add(accommodation);
+
+            Booking booking = new Booking();
+            booking.setId((long) i);
+            booking.setCheckInDate(checkIn.plusDays(i % 30));
+            booking.setCheckOutDate(checkIn.plusDays(i % 30 + 3));
+            booking.setAccommodation(accommodation);
+            booking.setUser(user);
+            booking.setStatus(Booking.Status.CONFIRMED);
+            bookings.add(booking);
+        }
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> bookingToListDto() {
+        return bookingMapper.toListDto(bookings);
+    }
+
+    @Benchmark
+    public List<AccommodationResponseDto> accommodationToListDto() {
+        return accommodationMapper.toListDto(accommodations);
+    }
+}
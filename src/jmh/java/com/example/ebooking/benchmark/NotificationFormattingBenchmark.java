@@ -0,0 +1,109 @@
+package com.example.ebooking.benchmark;
+
+import com.example.ebooking.model.Accommodation;
+import com.example.ebooking.model.Booking;
+import com.example.ebooking.model.NotificationOutboxMessage;
+import com.example.ebooking.model.Payment;
+import com.example.ebooking.model.User;
+import com.example.ebooking.repository.notification.NotificationOutboxRepository;
+import com.example.ebooking.service.notification.TelegramNotificationService;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures message formatting in {@link TelegramNotificationService}. The outbox repository
+ * is replaced by a stub that keeps the last saved message, so nothing reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationFormattingBenchmark {
+    private String lastMessage;
+    private TelegramNotificationService notificationService;
+    private Accommodation accommodation;
+    private User user;
+    private Booking booking;
+    private Payment payment;
+    private List<Long> releasedAccommodationIds;
+
+    @Setup
+    public void setUp() {
+        notificationService = new TelegramNotificationService(capturingRepository(),
+                Clock.systemDefaultZone());
+
+        accommodation = new Accommodation();
+        accommodation.setId(1L);
+        accommodation.setType(Accommodation.Type.HOUSE);
+        accommodation.setSize("120m");
+        accommodation.setDailyRate(BigDecimal.valueOf(120));
+
+        user = new User();
+        user.setId(2L);
+        user.setFirstName("Bob");
+        user.setLastName("Smith");
+
+        booking = new Booking();
+        booking.setId(3L);
+        booking.setCheckInDate(LocalDateTime.of(2030, 1, 1, 14, 0));
+        booking.setCheckOutDate(LocalDateTime.of(2030, 1, 4, 11, 0));
+        booking.setAccommodation(accommodation);
+        booking.setUser(user);
+
+        payment = new Payment();
+        payment.setId(4L);
+        payment.setBooking(booking);
+        payment.setStatus(Payment.PaymentStatus.PAID);
+        payment.setAmount(BigDecimal.valueOf(360));
+
+        releasedAccommodationIds = LongStream.rangeClosed(1, 100).boxed().toList();
+    }
+
+    @Benchmark
+    public String bookingCreateMessage() {
+        notificationService.sendBookingCreateMessage(accommodation, user, booking);
+        return lastMessage;
+    }
+
+    @Benchmark
+    public String paymentSuccessMessage() {
+        notificationService.sendPaymentSuccessMessage(payment);
+        return lastMessage;
+    }
+
+    @Benchmark
+    public String accommodationReleaseMessage() {
+        notificationService.sendAccommodationReleaseMessage(releasedAccommodationIds);
+        return lastMessage;
+    }
+
+    private NotificationOutboxRepository capturingRepository() {
+        return (NotificationOutboxRepository) Proxy.newProxyInstance(
+                NotificationOutboxRepository.class.getClassLoader(),
+                new Class<?>[] {NotificationOutboxRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("save")) {
+                        lastMessage = ((NotificationOutboxMessage) args[0]).getMessage();
+                        return args[0];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.ebooking.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.ebooking.bot.NotificationTelegramBot;
+import com.example.ebooking.config.CustomMyPostgresContainer;
+import com.example.ebooking.service.inventory.AccommodationInventoryService;
+import com.example.ebooking.service.pagination.Cursors;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.telegram.telegrambots.meta.TelegramBotsApi;
+
+/**
+ * Drives concurrent virtual users against the running application backed by a seeded
+ * Testcontainers Postgres. Telegram is replaced by mocks and Stripe by the fake payment
+ * gateway, which blocks for loadtest.gatewayLatencyMs, standing in for a slow gateway.
+ *
+ * <p>Run with {@code mvn -Pload-test test}. Volumes and duration are system properties:
+ * loadtest.users, loadtest.accommodations, loadtest.bookings, loadtest.virtualUsers,
+ * loadtest.warmupSeconds and loadtest.durationSeconds. Comparing the slow-gateway
+ * scenario with and without {@code -Pjava21 -Dspring.threads.virtual.enabled=true} and
+ * more virtual users than Tomcat worker threads shows the effect of virtual threads.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"jwt.secret=loadTestSecretKeyThatIsLongEnoughForHmacSha256",
+                "jwt.expiration=3600000", "stripe.secretKey=sk_test_load",
+                "stripe.webhook.secret=whsec_load",
+                "bot.name=load", "bot.key=load", "spring.jpa.show-sql=false"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ApiLoadTest {
+    private static final int USERS = Integer.getInteger("loadtest.users", 1_000);
+    private static final int ACCOMMODATIONS = Integer.getInteger("loadtest.accommodations",
+            5_000);
+    private static final int BOOKINGS = Integer.getInteger("loadtest.bookings", 50_000);
+    private static final int VIRTUAL_USERS = Integer.getInteger("loadtest.virtualUsers", 32);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmupSeconds", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.durationSeconds",
+            30);
+    private static final long GATEWAY_LATENCY_MS = Long.getLong("loadtest.gatewayLatencyMs",
+            300L);
+    private static final Path OUTPUT_DIRECTORY = Path.of("target", "load-test");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter
+            .ofPattern("dd-MM-yyyy HH:mm:ss");
+
+    @MockBean
+    private NotificationTelegramBot notificationTelegramBot;
+    @MockBean
+    private TelegramBotsApi telegramBotsApi;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private AccommodationInventoryService inventoryService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<String> tokens = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        CustomMyPostgresContainer container = CustomMyPostgresContainer.getInstance();
+        container.start();
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+        registry.add("payment.gateway.type", () -> "fake");
+        registry.add("payment.gateway.fake-latency", () -> GATEWAY_LATENCY_MS + "ms");
+    }
+
+    @BeforeAll
+    void seedAndLogin() throws Exception {
+        new LoadTestDataSeeder(jdbcTemplate).seed(USERS, ACCOMMODATIONS, BOOKINGS);
+        inventoryService.rebuild();
+        for (int i = 0; i < VIRTUAL_USERS; i++) {
+            HttpResponse<String> response = httpClient.send(loginRequest(i),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), response.body());
+            JsonNode body = objectMapper.readTree(response.body());
+            tokens.add(body.get("token").asText());
+        }
+        System.out.printf("Seeded %d users, %d accommodations, %d bookings; "
+                        + "%d virtual users, %ds warm-up, %ds measured per scenario; "
+                        + "java %s, virtual threads %s%n",
+                USERS, ACCOMMODATIONS, BOOKINGS, VIRTUAL_USERS, WARMUP_SECONDS,
+                DURATION_SECONDS, Runtime.version().feature(),
+                System.getProperty("spring.threads.virtual.enabled", "false"));
+    }
+
+    @Test
+    void runScenarios() throws Exception {
+        runScenario("post-auth-login", this::loginRequest);
+        runScenario("get-accommodations-list", vu -> get("/accommodations/list?after="
+                + Cursors.encode((long) ThreadLocalRandom.current().nextInt(ACCOMMODATIONS))
+                + "&size=20", null));
+        runScenario("get-bookings-my", vu -> get("/bookings/my?size=20",
+                tokens.get(vu)));
+        runScenario("post-bookings", this::createBookingRequest);
+        runScenario("post-payments-session-slow-gateway", vu -> post("/payments/session"
+                + "?bookingId=" + (1 + ThreadLocalRandom.current().nextInt(BOOKINGS)), "",
+                tokens.get(vu)));
+    }
+
+    private void runScenario(String name, IntFunction<HttpRequest> requestFactory)
+            throws Exception {
+        drive(new LatencyRecorder(name), requestFactory, WARMUP_SECONDS);
+        LatencyRecorder recorder = new LatencyRecorder(name);
+        long startNanos = System.nanoTime();
+        drive(recorder, requestFactory, DURATION_SECONDS);
+        recorder.report((System.nanoTime() - startNanos) / 1e9, OUTPUT_DIRECTORY);
+    }
+
+    private void drive(LatencyRecorder recorder, IntFunction<HttpRequest> requestFactory,
+                       int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(VIRTUAL_USERS);
+        List<Future<?>> virtualUsers = new ArrayList<>();
+        for (int i = 0; i < VIRTUAL_USERS; i++) {
+            int vu = i;
+            virtualUsers.add(executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = requestFactory.apply(vu);
+                    long startNanos = System.nanoTime();
+                    HttpResponse<Void> response = httpClient.send(request,
+                            HttpResponse.BodyHandlers.discarding());
+                    recorder.record(startNanos, response.statusCode());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> virtualUser : virtualUsers) {
+            virtualUser.get();
+        }
+        executor.shutdown();
+    }
+
+    private HttpRequest loginRequest(int vu) {
+        return post("/auth/login", String.format("{\"email\":\"%s\",\"password\":\"%s\"}",
+                LoadTestDataSeeder.email(vu), LoadTestDataSeeder.PASSWORD), null);
+    }
+
+    private HttpRequest createBookingRequest(int vu) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime checkIn = LocalDateTime.now().plusDays(1 + random.nextInt(365))
+                .withHour(14).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime checkOut = checkIn.plusDays(1 + random.nextInt(7)).withHour(11);
+        String body = String.format("{\"accommodationId\":%d,\"checkInDate\":\"%s\","
+                        + "\"checkOutDate\":\"%s\"}",
+                1 + random.nextInt(ACCOMMODATIONS), DATE_FORMAT.format(checkIn),
+                DATE_FORMAT.format(checkOut));
+        return post("/bookings", body, tokens.get(vu));
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:"
+                        + port + "/api" + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.ebooking.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Collects per-request latencies of one scenario into an HdrHistogram and counts the
+ * returned HTTP status codes.
+ */
+public class LatencyRecorder {
+    private static final long HIGHEST_TRACKABLE_MICROS = 60_000_000L;
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private final String scenario;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+
+    public LatencyRecorder(String scenario) {
+        this.scenario = scenario;
+    }
+
+    public void record(long startNanos, int statusCode) {
+        long micros = (System.nanoTime() - startNanos) / 1_000;
+        recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+        statusCounts.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+    }
+
+    /**
+     * Prints throughput, percentiles and status codes, and writes the full percentile
+     * distribution to {@code target/load-test/<scenario>.hgrm}.
+     */
+    public void report(double elapsedSeconds, Path outputDirectory) throws IOException {
+        Histogram histogram = recorder.getIntervalHistogram();
+        Map<Integer, Long> statuses = new TreeMap<>();
+        statusCounts.forEach((code, count) -> statuses.put(code, count.sum()));
+
+        System.out.printf("%-28s requests=%d throughput=%.1f req/s p50=%.2fms p90=%.2fms "
+                        + "p99=%.2fms p99.9=%.2fms max=%.2fms statuses=%s%n",
+                scenario,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / elapsedSeconds,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI,
+                statuses);
+
+        Files.createDirectories(outputDirectory);
+        try (PrintStream out = new PrintStream(outputDirectory
+                .resolve(scenario + ".hgrm").toFile())) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+}
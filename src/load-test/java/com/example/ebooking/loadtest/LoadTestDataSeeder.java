@@ -0,0 +1,97 @@
+package com.example.ebooking.loadtest;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Seeds users, accommodations and bookings with JDBC batch inserts on top of the
+ * schema created by Liquibase. Data is generated from a fixed seed, so every run
+ * sees the same volumes and distribution.
+ */
+public class LoadTestDataSeeder {
+    public static final String PASSWORD = "password1";
+    private static final int BATCH_SIZE = 1_000;
+    private static final String[] TYPES = {"HOUSE", "APARTMENT", "CONDO", "VACATION_HOME"};
+    private static final String[] CITIES = {"Kyiv", "Lviv", "Odesa", "Dnipro", "Kharkiv"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(42);
+
+    public LoadTestDataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static String email(int index) {
+        return "u" + index + "@load.test";
+    }
+
+    public void seed(int users, int accommodations, int bookings) {
+        seedUsers(users);
+        seedAccommodations(accommodations);
+        seedBookings(bookings);
+    }
+
+    private void seedUsers(int users) {
+        String password = new BCryptPasswordEncoder().encode(PASSWORD);
+        List<Object[]> rows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            rows.add(new Object[]{email(i), "Load", "User" + i, password});
+        }
+        batchUpdate("INSERT INTO users (email, first_name, last_name, password, is_deleted) "
+                + "VALUES (?, ?, ?, ?, false)", rows);
+        jdbcTemplate.update("INSERT INTO users_roles (user_id, role_id) "
+                + "SELECT u.id, r.id FROM users u, roles r "
+                + "WHERE u.email LIKE '%@load.test' AND r.role = 'ROLE_USER'");
+    }
+
+    private void seedAccommodations(int accommodations) {
+        List<Object[]> rows = new ArrayList<>(accommodations);
+        for (int i = 0; i < accommodations; i++) {
+            rows.add(new Object[]{
+                    TYPES[random.nextInt(TYPES.length)],
+                    CITIES[random.nextInt(CITIES.length)] + ", street " + i,
+                    (30 + random.nextInt(120)) + "m",
+                    50 + random.nextInt(250),
+                    1 + random.nextInt(5)
+            });
+        }
+        batchUpdate("INSERT INTO accommodations "
+                + "(type, location, size, amenities, daily_rate, availability, is_deleted) "
+                + "VALUES (?, ?, ?, ARRAY['WiFi', 'Parking'], ?, ?, false)", rows);
+    }
+
+    private void seedBookings(int bookings) {
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE email LIKE '%@load.test'", Long.class);
+        List<Long> accommodationIds = jdbcTemplate.queryForList(
+                "SELECT id FROM accommodations", Long.class);
+        LocalDateTime start = LocalDateTime.now().withHour(14).withMinute(0).withSecond(0)
+                .withNano(0);
+        List<Object[]> rows = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            LocalDateTime checkIn = start.plusDays(random.nextInt(365));
+            rows.add(new Object[]{
+                    Timestamp.valueOf(checkIn),
+                    Timestamp.valueOf(checkIn.plusDays(1 + random.nextInt(7)).withHour(11)),
+                    accommodationIds.get(random.nextInt(accommodationIds.size())),
+                    userIds.get(random.nextInt(userIds.size())),
+                    random.nextInt(4) == 0 ? "PENDING" : "CONFIRMED"
+            });
+        }
+        batchUpdate("INSERT INTO bookings "
+                + "(check_in_date, check_out_date, accommodation_id, user_id, status, is_deleted) "
+                + "VALUES (?, ?, ?, ?, ?, false)", rows);
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from,
+                    Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+}
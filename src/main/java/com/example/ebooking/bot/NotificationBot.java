@@ -0,0 +1,7 @@
+package com.example.ebooking.bot;
+
+public interface NotificationBot {
+    Long getAdminChatId();
+
+    void sendMessage(Long chatId, String messageText);
+}
@@ -11,7 +11,7 @@ import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 @RequiredArgsConstructor
 @Component
-public class NotificationTelegramBot extends TelegramLongPollingBot {
+public class NotificationTelegramBot extends TelegramLongPollingBot implements NotificationBot {
     private final NotificationBotConfig botConfig;
 
     private Long adminChatId;
@@ -45,6 +45,11 @@ public class NotificationTelegramBot extends TelegramLongPollingBot {
                 + "! You have successfully started using the chat");
     }
 
+    @Override
+    public Long getAdminChatId() {
+        return adminChatId;
+    }
+
     public void sendNotification(String message) {
         if (adminChatId != null) {
             sendMessage(adminChatId, message);
@@ -53,7 +58,8 @@ public class NotificationTelegramBot extends TelegramLongPollingBot {
         }
     }
 
-    private void sendMessage(Long chatId, String messageText) {
+    @Override
+    public void sendMessage(Long chatId, String messageText) {
         SendMessage sendMessage = new SendMessage();
         sendMessage.setChatId(chatId.toString());
         sendMessage.setText(messageText);
@@ -0,0 +1,72 @@
+package com.example.ebooking.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PRINCIPALS_CACHE = "principals";
+    public static final String ACCOMMODATIONS_CACHE = "accommodations";
+    public static final String ACCOMMODATION_PAGES_CACHE = "accommodationPages";
+    public static final String IDEMPOTENCY_KEYS_CACHE = "idempotencyKeys";
+
+    @Value("${cache.principals.max-size}")
+    private long principalsMaxSize;
+
+    @Value("${cache.principals.ttl}")
+    private Duration principalsTtl;
+
+    @Value("${cache.accommodations.max-size}")
+    private long accommodationsMaxSize;
+
+    @Value("${cache.accommodations.ttl}")
+    private Duration accommodationsTtl;
+
+    @Value("${cache.accommodation-pages.max-size}")
+    private long accommodationPagesMaxSize;
+
+    @Value("${cache.accommodation-pages.ttl}")
+    private Duration accommodationPagesTtl;
+
+    @Value("${cache.idempotency-keys.max-size}")
+    private long idempotencyKeysMaxSize;
+
+    @Value("${cache.idempotency-keys.ttl}")
+    private Duration idempotencyKeysTtl;
+
+    /**
+     * Evictions issued inside a transaction are applied after it commits so a
+     * concurrent request cannot reload stale rows. Statistics are recorded for the
+     * actuator cache.gets / cache.evictions metrics.
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PRINCIPALS_CACHE,
+                buildCache(principalsMaxSize, principalsTtl));
+        cacheManager.registerCustomCache(ACCOMMODATIONS_CACHE,
+                buildCache(accommodationsMaxSize, accommodationsTtl));
+        cacheManager.registerCustomCache(ACCOMMODATION_PAGES_CACHE,
+                buildCache(accommodationPagesMaxSize, accommodationPagesTtl));
+        cacheManager.registerCustomCache(IDEMPOTENCY_KEYS_CACHE,
+                buildCache(idempotencyKeysMaxSize, idempotencyKeysTtl));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private Cache<Object, Object> buildCache(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
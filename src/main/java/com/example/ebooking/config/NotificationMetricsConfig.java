@@ -0,0 +1,22 @@
+package com.example.ebooking.config;
+
+import com.example.ebooking.service.notification.NotificationOutboxStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class NotificationMetricsConfig {
+    /**
+     * Depth of the notification queue: outbox messages not yet delivered, read from the
+     * partial index on pending rows when the metric is scraped.
+     */
+    @Bean
+    public MeterBinder notificationOutboxMetrics(NotificationOutboxStore outboxStore) {
+        return registry -> Gauge.builder("notification.outbox.pending",
+                        outboxStore, NotificationOutboxStore::countPending)
+                .description("Notifications waiting in the outbox")
+                .register(registry);
+    }
+}
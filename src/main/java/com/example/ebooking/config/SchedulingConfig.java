@@ -1,9 +1,15 @@
 package com.example.ebooking.config;
 
+import java.time.Clock;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
 @EnableScheduling
 public class SchedulingConfig {
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
 }
@@ -39,8 +39,13 @@ public class SecureConfig {
                 .authorizeHttpRequests(
                         auth -> auth
                                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**",
-                                        "/auth/**", "/error", "/accommodations/list")
+                                        "/auth/**", "/error", "/accommodations/list",
+                                        "/accommodations/search", "/payments/webhook")
                                 .permitAll()
+                                .requestMatchers("/actuator/health")
+                                .permitAll()
+                                .requestMatchers("/actuator/**")
+                                .hasAuthority("ROLE_ADMIN")
                                 .anyRequest()
                                 .authenticated()
                 )
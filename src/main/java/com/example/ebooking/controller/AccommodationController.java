@@ -2,6 +2,7 @@ package com.example.ebooking.controller;
 
 import com.example.ebooking.dto.accommodation.AccommodationRequestDto;
 import com.example.ebooking.dto.accommodation.AccommodationResponseDto;
+import com.example.ebooking.dto.accommodation.AccommodationSearchParameters;
 import com.example.ebooking.service.accommodation.AccommodationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,6 +11,7 @@ import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -31,8 +34,22 @@ public class AccommodationController {
     @Operation(summary = "Get all accommodation",
             description = " Get all accommodation for non authentication user")
     @GetMapping("/list")
-    public List<AccommodationResponseDto> getAll(Pageable pageable) {
-        return accommodationService.getAll(pageable);
+    public ResponseEntity<List<AccommodationResponseDto>> getAll(
+            @RequestParam(required = false) String after,
+            Pageable pageable) {
+        return CursorResponses.of(accommodationService.getAll(after, pageable.getPageSize()));
+    }
+
+    @Operation(summary = "Search accommodation",
+            description = "Search accommodation by location, type, amenities, daily rate "
+                    + "and free units for the dates for non authentication user")
+    @GetMapping("/search")
+    public ResponseEntity<List<AccommodationResponseDto>> search(
+            @Valid AccommodationSearchParameters parameters,
+            @RequestParam(required = false) String after,
+            Pageable pageable) {
+        return CursorResponses.of(accommodationService.search(parameters, after,
+                pageable.getPageSize()));
     }
 
     @Operation(summary = "Get accommodation by id",
@@ -3,9 +3,13 @@ package com.example.ebooking.controller;
 import com.example.ebooking.dto.booking.BookingFilterParameters;
 import com.example.ebooking.dto.booking.BookingRequestDto;
 import com.example.ebooking.dto.booking.BookingResponseDto;
+import com.example.ebooking.dto.booking.BulkUpdateBookingStatusRequestDto;
+import com.example.ebooking.dto.booking.BulkUpdateBookingStatusResponseDto;
 import com.example.ebooking.dto.booking.UpdateBookingStatusRequestDto;
 import com.example.ebooking.model.User;
+import com.example.ebooking.service.booking.BookingBulkStatusUpdater;
 import com.example.ebooking.service.booking.BookingService;
+import com.example.ebooking.service.idempotency.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -13,6 +17,7 @@ import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -21,7 +26,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -35,29 +42,38 @@ public class BookingController {
             + "or hasAuthority('ROLE_PRIVILEGED_USER')";
 
     private final BookingService bookingService;
+    private final BookingBulkStatusUpdater bulkStatusUpdater;
+    private final IdempotencyService idempotencyService;
 
     @Operation(summary = "Create new booking",
-            description = "Create new booking for authentication user")
+            description = "Create new booking for authentication user. A retry with the "
+                    + "same Idempotency-Key returns the booking created by the first request")
     @PreAuthorize(USER_ROLES)
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BookingResponseDto save(
             Authentication authentication,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false)
+            String idempotencyKey,
             @RequestBody @Valid BookingRequestDto requestDto) {
         User user = (User) authentication.getPrincipal();
-        return bookingService.save(user, requestDto);
+        return idempotencyService.execute(user.getId(), idempotencyKey, "POST /bookings",
+                requestDto, BookingResponseDto.class,
+                () -> bookingService.save(user, requestDto));
     }
 
     @Operation(summary = "Get all booking by user",
             description = "Get all booking by user for authentication user")
     @PreAuthorize(USER_ROLES)
     @GetMapping("/my")
-    public List<BookingResponseDto> getAllBookingByAuthUser(
+    public ResponseEntity<List<BookingResponseDto>> getAllBookingByAuthUser(
             Authentication authentication,
+            @RequestParam(required = false) String after,
             Pageable pageable
     ) {
         User user = (User) authentication.getPrincipal();
-        return bookingService.getAllBookingsByUser(user, pageable);
+        return CursorResponses.of(bookingService.getAllBookingsByUser(user, after,
+                pageable.getPageSize()));
     }
 
     @Operation(summary = "Get booking by id for user",
@@ -109,11 +125,13 @@ public class BookingController {
             description = "Find booking by status or user id for admin")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
     @GetMapping
-    public List<BookingResponseDto> findBookingByUserIdAndStatus(
+    public ResponseEntity<List<BookingResponseDto>> findBookingByUserIdAndStatus(
             BookingFilterParameters parameters,
+            @RequestParam(required = false) String after,
             Pageable pageable
     ) {
-        return bookingService.getAllBookingByUserIdAndStatus(parameters, pageable);
+        return CursorResponses.of(bookingService.getAllBookingByUserIdAndStatus(parameters,
+                after, pageable.getPageSize()));
     }
 
     @Operation(summary = "Update booking`s status by id",
@@ -125,4 +143,14 @@ public class BookingController {
             @PathVariable Long id) {
         return bookingService.updateStatusById(requestDto, id);
     }
+
+    @Operation(summary = "Update status of many bookings",
+            description = "Update the status of bookings given by ids or by a filter "
+                    + "for admin, in chunks, returning the result of every chunk")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @PutMapping("/status")
+    public BulkUpdateBookingStatusResponseDto updateStatusInBulk(
+            @RequestBody @Valid BulkUpdateBookingStatusRequestDto requestDto) {
+        return bulkStatusUpdater.updateStatus(requestDto);
+    }
 }
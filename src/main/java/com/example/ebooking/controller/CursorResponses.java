@@ -0,0 +1,25 @@
+package com.example.ebooking.controller;
+
+import com.example.ebooking.dto.pagination.CursorPage;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Cursor pages keep the plain JSON array body of the list endpoints; the cursor of the
+ * next page goes into the {@value #NEXT_CURSOR_HEADER} header and is absent on the last
+ * page. Clients pass it back as the {@code after} request parameter.
+ */
+final class CursorResponses {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private CursorResponses() {
+    }
+
+    static <T> ResponseEntity<List<T>> of(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return builder.body(page.content());
+    }
+}
@@ -5,19 +5,23 @@ import com.example.ebooking.dto.payment.CreatePaymentSessionDto;
 import com.example.ebooking.dto.payment.PaymentResponseDto;
 import com.example.ebooking.dto.payment.PaymentWithoutSessionDto;
 import com.example.ebooking.model.User;
+import com.example.ebooking.service.idempotency.IdempotencyService;
 import com.example.ebooking.service.payment.StripePaymentService;
-import com.stripe.exception.StripeException;
+import com.example.ebooking.service.payment.StripeWebhookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -33,40 +37,54 @@ public class PaymentController {
             + "or hasAuthority('ROLE_PRIVILEGED_USER')";
 
     private final StripePaymentService paymentService;
+    private final StripeWebhookService webhookService;
+    private final IdempotencyService idempotencyService;
 
     @Operation(summary = "Get all payment for user",
             description = "Get all payment for authentication user")
     @GetMapping("/user")
     @PreAuthorize(USER_ROLES)
-    public List<PaymentResponseDto> getAllPaymentsForAuthUser(Authentication authentication,
-                                                              Pageable pageable) {
+    public ResponseEntity<List<PaymentResponseDto>> getAllPaymentsForAuthUser(
+            Authentication authentication,
+            @RequestParam(required = false) String after,
+            Pageable pageable) {
         User user = (User) authentication.getPrincipal();
-        return paymentService.getPaymentsForUser(user.getId(), pageable);
+        return CursorResponses.of(paymentService.getPaymentsForUser(user.getId(), after,
+                pageable.getPageSize()));
     }
 
     @Operation(summary = "Get all payment for admin",
             description = "Get all payment for admin")
     @GetMapping("/all")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public List<PaymentResponseDto> getAllPaymentsForAdmin(Pageable pageable) {
-        return paymentService.getPaymentsForAdmin(pageable);
+    public ResponseEntity<List<PaymentResponseDto>> getAllPaymentsForAdmin(
+            @RequestParam(required = false) String after,
+            Pageable pageable) {
+        return CursorResponses.of(paymentService.getPaymentsForAdmin(after,
+                pageable.getPageSize()));
     }
 
     @Operation(summary = "Create session by booking id",
-            description = "Create session by booking id")
+            description = "Create session by booking id. A retry with the same "
+                    + "Idempotency-Key returns the session created by the first request")
     @PostMapping("/session")
     @ResponseStatus(HttpStatus.CREATED)
     @PreAuthorize(USER_ROLES)
-    public CreatePaymentSessionDto createPaymentSession(@RequestParam Long bookingId)
-            throws StripeException {
-        return paymentService.createPaymentSession(bookingId);
+    public CreatePaymentSessionDto createPaymentSession(
+            Authentication authentication,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false)
+            String idempotencyKey,
+            @RequestParam Long bookingId) {
+        User user = (User) authentication.getPrincipal();
+        return idempotencyService.execute(user.getId(), idempotencyKey,
+                "POST /payments/session", bookingId, CreatePaymentSessionDto.class,
+                () -> paymentService.createPaymentSession(bookingId));
     }
 
     @GetMapping("/success")
     @PreAuthorize(USER_ROLES)
-    public PaymentWithoutSessionDto handleSuccessPayment(@RequestParam String sessionId)
-            throws StripeException {
-        return paymentService.processSuccessfulPayment(sessionId);
+    public PaymentWithoutSessionDto handleSuccessPayment(@RequestParam String sessionId) {
+        return paymentService.getPaymentStatus(sessionId);
     }
 
     @GetMapping("/cancel")
@@ -75,13 +93,22 @@ public class PaymentController {
         return paymentService.processCancelPayment(sessionId);
     }
 
+    @Operation(summary = "Receive Stripe webhook",
+            description = "Verify the Stripe signature and store the event for processing")
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> handleStripeWebhook(
+            @RequestHeader("Stripe-Signature") String signature,
+            @RequestBody String payload) {
+        webhookService.receive(payload, signature);
+        return ResponseEntity.ok().build();
+    }
+
     @Operation(summary = "Renew session by payment id",
             description = "Renew session by payment id")
     @PreAuthorize(USER_ROLES)
     @PostMapping("/{paymentId}/renew")
     @ResponseStatus(HttpStatus.CREATED)
-    public CreatePaymentSessionDto renewPaymentSession(@PathVariable Long paymentId)
-            throws StripeException {
+    public CreatePaymentSessionDto renewPaymentSession(@PathVariable Long paymentId) {
         return paymentService.renewPaymentSession(paymentId);
     }
 }
@@ -0,0 +1,22 @@
+package com.example.ebooking.dto.accommodation;
+
+import com.example.ebooking.model.Accommodation;
+import com.example.ebooking.validation.searchdates.ValidSearchDates;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import org.springframework.format.annotation.DateTimeFormat;
+
+@ValidSearchDates
+public record AccommodationSearchParameters(
+        String location,
+        Accommodation.Type[] typeArray,
+        Accommodation.Amenities[] amenitiesArray,
+        BigDecimal minDailyRate,
+        BigDecimal maxDailyRate,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate) {
+    public AccommodationSearchParameters {
+        typeArray = typeArray != null ? typeArray : new Accommodation.Type[0];
+        amenitiesArray = amenitiesArray != null ? amenitiesArray : new Accommodation.Amenities[0];
+    }
+}
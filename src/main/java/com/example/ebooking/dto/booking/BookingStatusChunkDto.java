@@ -0,0 +1,20 @@
+package com.example.ebooking.dto.booking;
+
+import java.util.List;
+
+/**
+ * Outcome of one chunk of a bulk status update. {@code matched} bookings were found in
+ * the id range, {@code updated} of them changed status; the rest were changed by someone
+ * else in the meantime, or are listed in {@code unavailableIds} because their nights were
+ * sold before they could be made active again. {@code error} is set when the chunk was
+ * rolled back.
+ */
+public record BookingStatusChunkDto(
+        int chunk,
+        Long fromId,
+        Long toId,
+        int matched,
+        int updated,
+        List<Long> unavailableIds,
+        String error) {
+}
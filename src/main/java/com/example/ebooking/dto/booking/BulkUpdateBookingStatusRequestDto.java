@@ -0,0 +1,31 @@
+package com.example.ebooking.dto.booking;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BulkUpdateBookingStatusRequestDto {
+    public static final int MAX_BOOKING_IDS = 10_000;
+
+    @NotNull
+    @Pattern(regexp = "PENDING|CONFIRMED|CANCELED|EXPIRED",
+            message = "Type must be one of PENDING, CONFIRMED, CANCELED, EXPIRED")
+    private String status;
+
+    @Size(max = MAX_BOOKING_IDS)
+    private List<Long> bookingIds;
+
+    private BookingFilterParameters filter;
+
+    @AssertTrue(message = "Specify either bookingIds or a filter by statuses or user ids")
+    public boolean isTargetSpecified() {
+        boolean hasIds = bookingIds != null && !bookingIds.isEmpty();
+        boolean hasFilter = filter != null && (filter.statusArray().length > 0
+                || filter.userIdArray().length > 0);
+        return hasIds != hasFilter;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.ebooking.dto.booking;
+
+import java.util.List;
+
+public record BulkUpdateBookingStatusResponseDto(
+        String status,
+        int matched,
+        int updated,
+        List<BookingStatusChunkDto> chunks) {
+}
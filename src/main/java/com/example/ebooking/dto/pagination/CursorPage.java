@@ -0,0 +1,6 @@
+package com.example.ebooking.dto.pagination;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> content, String nextCursor) {
+}
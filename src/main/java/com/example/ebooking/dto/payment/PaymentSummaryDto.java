@@ -0,0 +1,12 @@
+package com.example.ebooking.dto.payment;
+
+import com.example.ebooking.model.Payment;
+import java.math.BigDecimal;
+
+public record PaymentSummaryDto(Long id,
+                                Long bookingId,
+                                String sessionId,
+                                String sessionUrl,
+                                BigDecimal amount,
+                                Payment.PaymentStatus status) {
+}
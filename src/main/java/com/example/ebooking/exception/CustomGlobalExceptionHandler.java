@@ -2,10 +2,14 @@ package com.example.ebooking.exception;
 
 import com.example.ebooking.exception.exceptions.BookingAvailabilityException;
 import com.example.ebooking.exception.exceptions.EntityNotFoundException;
+import com.example.ebooking.exception.exceptions.IdempotencyKeyException;
+import com.example.ebooking.exception.exceptions.InvalidCursorException;
 import com.example.ebooking.exception.exceptions.NotificationException;
+import com.example.ebooking.exception.exceptions.PaymentGatewayException;
 import com.example.ebooking.exception.exceptions.PaymentStatusException;
 import com.example.ebooking.exception.exceptions.PendingPaymentException;
 import com.example.ebooking.exception.exceptions.RegistrationException;
+import com.example.ebooking.exception.exceptions.WebhookSignatureException;
 import io.jsonwebtoken.JwtException;
 import jakarta.validation.ConstraintViolationException;
 import java.time.LocalDateTime;
@@ -90,6 +94,27 @@ public class CustomGlobalExceptionHandler {
         return buildResponseEntity(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Object> handleInvalidCursorException(InvalidCursorException ex) {
+        return buildResponseEntity(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(PaymentGatewayException.class)
+    public ResponseEntity<Object> handlePaymentGatewayException(PaymentGatewayException ex) {
+        return buildResponseEntity(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyException(IdempotencyKeyException ex) {
+        return buildResponseEntity(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(WebhookSignatureException.class)
+    public ResponseEntity<Object> handleWebhookSignatureException(
+            WebhookSignatureException ex) {
+        return buildResponseEntity(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
     @ExceptionHandler(NullPointerException.class)
     public ResponseEntity<Object> handleNullPointerException(NullPointerException ex) {
         return buildResponseEntity(HttpStatus.BAD_REQUEST, ex.getMessage());
@@ -0,0 +1,7 @@
+package com.example.ebooking.exception.exceptions;
+
+public class IdempotencyKeyException extends RuntimeException {
+    public IdempotencyKeyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.ebooking.exception.exceptions;
+
+public class WebhookSignatureException extends RuntimeException {
+    public WebhookSignatureException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.ebooking.mapper;
 import com.example.ebooking.config.MapperConfig;
 import com.example.ebooking.dto.payment.CreatePaymentSessionDto;
 import com.example.ebooking.dto.payment.PaymentResponseDto;
+import com.example.ebooking.dto.payment.PaymentSummaryDto;
 import com.example.ebooking.dto.payment.PaymentWithoutSessionDto;
 import com.example.ebooking.model.Payment;
 import java.util.List;
@@ -11,8 +12,7 @@ import org.mapstruct.Mapping;
 
 @Mapper(config = MapperConfig.class)
 public interface PaymentMapper {
-    @Mapping(source = "booking.id", target = "bookingId")
-    List<PaymentResponseDto> toDtoList(List<Payment> payments);
+    List<PaymentResponseDto> toDtoList(List<PaymentSummaryDto> payments);
 
     CreatePaymentSessionDto toPaymentResponseDto(Payment payment);
 
@@ -0,0 +1,41 @@
+package com.example.ebooking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "accommodation_inventory")
+@IdClass(AccommodationInventory.InventoryId.class)
+public class AccommodationInventory {
+    @Id
+    @Column(name = "accommodation_id")
+    private Long accommodationId;
+
+    @Id
+    private LocalDate night;
+
+    @Column(nullable = false)
+    private Integer bookedUnits;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class InventoryId implements Serializable {
+        private Long accommodationId;
+        private LocalDate night;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.ebooking.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum NotificationType {
+    BOOKING_CREATED("bookings created"),
+    BOOKING_CANCELED("bookings canceled"),
+    BOOKING_STATUS_UPDATED("booking status updates"),
+    ACCOMMODATION_CREATED("accommodations created"),
+    ACCOMMODATION_RELEASED("accommodation releases"),
+    PAYMENT_SUCCEEDED("payments succeeded"),
+    PAYMENT_REFUND_REQUIRED("payments to refund");
+
+    private final String digestLabel;
+}
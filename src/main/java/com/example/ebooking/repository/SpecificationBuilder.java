@@ -1,8 +1,7 @@
 package com.example.ebooking.repository;
 
-import com.example.ebooking.dto.booking.BookingFilterParameters;
 import org.springframework.data.jpa.domain.Specification;
 
-public interface SpecificationBuilder<T> {
-    Specification<T> build(BookingFilterParameters parameters);
+public interface SpecificationBuilder<T, P> {
+    Specification<T> build(P parameters);
 }
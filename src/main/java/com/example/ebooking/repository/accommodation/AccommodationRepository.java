@@ -1,9 +1,38 @@
 package com.example.ebooking.repository.accommodation;
 
 import com.example.ebooking.model.Accommodation;
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface AccommodationRepository extends JpaRepository<Accommodation, Long> {
+public interface AccommodationRepository extends JpaRepository<Accommodation, Long>,
+        JpaSpecificationExecutor<Accommodation> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Accommodation a WHERE a.id = :id")
+    Optional<Accommodation> findByIdForUpdate(@Param("id") Long id);
+
+    Slice<Accommodation> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * Reads up to {@code limit} accommodations matching the specification in id order,
+     * without the count query that a paged read runs.
+     */
+    default List<Accommodation> findWindowBy(Specification<Accommodation> specification,
+                                             int limit) {
+        return findBy(specification, query -> query
+                .sortBy(Sort.by("id"))
+                .limit(limit)
+                .all());
+    }
 }
@@ -0,0 +1,54 @@
+package com.example.ebooking.repository.accommodation;
+
+import com.example.ebooking.dto.accommodation.AccommodationSearchParameters;
+import com.example.ebooking.model.Accommodation;
+import com.example.ebooking.repository.SpecificationBuilder;
+import com.example.ebooking.repository.SpecificationProviderManager;
+import java.util.Arrays;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Component
+public class AccommodationSpecificationBuilder implements SpecificationBuilder<Accommodation,
+        AccommodationSearchParameters> {
+    private final SpecificationProviderManager<Accommodation> specificationProviderManager;
+
+    @Override
+    public Specification<Accommodation> build(AccommodationSearchParameters parameters) {
+        Specification<Accommodation> spec = Specification.where(null);
+        if (parameters.location() != null && !parameters.location().isBlank()) {
+            spec = spec.and(getSpecification("location", parameters.location().strip()));
+        }
+        if (parameters.typeArray().length > 0) {
+            spec = spec.and(getSpecification("type", Arrays.stream(parameters.typeArray())
+                    .map(Enum::name)
+                    .toArray(String[]::new)));
+        }
+        if (parameters.amenitiesArray().length > 0) {
+            spec = spec.and(getSpecification("amenities", Arrays.stream(parameters
+                            .amenitiesArray())
+                    .map(Enum::name)
+                    .toArray(String[]::new)));
+        }
+        if (parameters.minDailyRate() != null) {
+            spec = spec.and(getSpecification("minDailyRate",
+                    parameters.minDailyRate().toPlainString()));
+        }
+        if (parameters.maxDailyRate() != null) {
+            spec = spec.and(getSpecification("maxDailyRate",
+                    parameters.maxDailyRate().toPlainString()));
+        }
+        if (parameters.checkInDate() != null && parameters.checkOutDate() != null) {
+            spec = spec.and(getSpecification("availableDates",
+                    parameters.checkInDate().toString(), parameters.checkOutDate().toString()));
+        }
+        return spec;
+    }
+
+    private Specification<Accommodation> getSpecification(String key, String... params) {
+        return specificationProviderManager.getSpecificationProvider(key)
+                .getSpecification(params);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ebooking.repository.accommodation;
+
+import com.example.ebooking.model.Accommodation;
+import com.example.ebooking.repository.SpecificationProvider;
+import com.example.ebooking.repository.SpecificationProviderManager;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Component
+public class AccommodationSpecificationProviderManager
+        implements SpecificationProviderManager<Accommodation> {
+    private final List<SpecificationProvider<Accommodation>> specificationProviderList;
+
+    @Override
+    public SpecificationProvider<Accommodation> getSpecificationProvider(String key) {
+        return specificationProviderList.stream()
+                .filter(a -> a.getKey().equals(key))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Can`t find correct specification for key: "
+                        + key));
+    }
+}
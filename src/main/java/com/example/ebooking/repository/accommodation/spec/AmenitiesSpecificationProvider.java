@@ -0,0 +1,30 @@
+package com.example.ebooking.repository.accommodation.spec;
+
+import com.example.ebooking.model.Accommodation;
+import com.example.ebooking.repository.SpecificationProvider;
+import jakarta.persistence.criteria.Predicate;
+import java.util.Arrays;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AmenitiesSpecificationProvider implements SpecificationProvider<Accommodation> {
+    @Override
+    public String getKey() {
+        return "amenities";
+    }
+
+    /**
+     * Requires every requested amenity. Hibernate renders array_contains as the
+     * Postgres {@code @>} operator, which is served by the GIN index on amenities.
+     */
+    @Override
+    public Specification<Accommodation> getSpecification(String[] params) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(Arrays.stream(params)
+                .map(Accommodation.Amenities::valueOf)
+                .map(amenity -> criteriaBuilder.isTrue(criteriaBuilder.function(
+                        "array_contains", Boolean.class,
+                        root.get("amenities"), criteriaBuilder.literal(amenity))))
+                .toArray(Predicate[]::new));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ebooking.repository.accommodation.spec;
+
+import com.example.ebooking.model.Accommodation;
+import com.example.ebooking.model.AccommodationInventory;
+import com.example.ebooking.repository.SpecificationProvider;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.time.LocalDate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AvailableDatesSpecificationProvider implements SpecificationProvider<Accommodation> {
+    @Override
+    public String getKey() {
+        return "availableDates";
+    }
+
+    /**
+     * Keeps accommodations that still have a free unit on every night of the stay,
+     * reading the per-night inventory ledger through its primary key.
+     */
+    @Override
+    public Specification<Accommodation> getSpecification(String[] params) {
+        LocalDate firstNight = LocalDate.parse(params[0]);
+        LocalDate checkOutNight = LocalDate.parse(params[1]);
+        LocalDate endNight = checkOutNight.isAfter(firstNight)
+                ? checkOutNight
+                : firstNight.plusDays(1);
+
+        return (root, query, criteriaBuilder) -> {
+            Subquery<Integer> bookedUnits = query.subquery(Integer.class);
+            Root<AccommodationInventory> inventory = bookedUnits.from(
+                    AccommodationInventory.class);
+            bookedUnits.select(criteriaBuilder.max(inventory.get("bookedUnits")))
+                    .where(criteriaBuilder.equal(inventory.get("accommodationId"),
+                                    root.get("id")),
+                            criteriaBuilder.greaterThanOrEqualTo(inventory.get("night"),
+                                    firstNight),
+                            criteriaBuilder.lessThan(inventory.get("night"), endNight));
+
+            return criteriaBuilder.greaterThan(root.get("availability"),
+                    criteriaBuilder.coalesce(bookedUnits, 0));
+        };
+    }
+}
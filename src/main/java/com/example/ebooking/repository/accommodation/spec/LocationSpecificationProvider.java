@@ -0,0 +1,22 @@
+package com.example.ebooking.repository.accommodation.spec;
+
+import com.example.ebooking.model.Accommodation;
+import com.example.ebooking.repository.SpecificationProvider;
+import java.util.Locale;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LocationSpecificationProvider implements SpecificationProvider<Accommodation> {
+    @Override
+    public String getKey() {
+        return "location";
+    }
+
+    @Override
+    public Specification<Accommodation> getSpecification(String[] params) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.like(
+                criteriaBuilder.lower(root.get("location")),
+                "%" + params[0].toLowerCase(Locale.ROOT) + "%");
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.ebooking.repository.accommodation.spec;
+
+import com.example.ebooking.model.Accommodation;
+import com.example.ebooking.repository.SpecificationProvider;
+import java.math.BigDecimal;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MinDailyRateSpecificationProvider implements SpecificationProvider<Accommodation> {
+    @Override
+    public String getKey() {
+        return "minDailyRate";
+    }
+
+    @Override
+    public Specification<Accommodation> getSpecification(String[] params) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(
+                root.get("dailyRate"), new BigDecimal(params[0]));
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.ebooking.repository.accommodation.spec;
+
+import com.example.ebooking.model.Accommodation;
+import com.example.ebooking.repository.SpecificationProvider;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TypeSpecificationProvider implements SpecificationProvider<Accommodation> {
+    @Override
+    public String getKey() {
+        return "type";
+    }
+
+    @Override
+    public Specification<Accommodation> getSpecification(String[] params) {
+        return (root, query, criteriaBuilder) -> {
+            List<Accommodation.Type> types = Arrays.stream(params)
+                    .map(Accommodation.Type::valueOf)
+                    .toList();
+
+            return root.get("type").in(types);
+        };
+    }
+}
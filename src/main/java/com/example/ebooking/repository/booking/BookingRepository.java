@@ -1,14 +1,20 @@
 package com.example.ebooking.repository.booking;
 
 import com.example.ebooking.model.Booking;
+import jakarta.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,14 +23,72 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long>,
         JpaSpecificationExecutor<Booking> {
-    Page<Booking> findByUserId(Long userId, Pageable pageable);
+    @EntityGraph(attributePaths = "user")
+    Slice<Booking> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId,
+                                                            Pageable pageable);
 
+    @EntityGraph(attributePaths = "user")
     Optional<Booking> findByUserIdAndId(Long userId, Long bookingId);
 
-    List<Booking> findByAccommodationId(Long id);
+    /**
+     * Loads the user's booking and locks its row, so that concurrent status changes of the
+     * same booking see each other's result before moving its nights in the ledger.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :bookingId AND b.user.id = :userId")
+    Optional<Booking> findByUserIdAndIdForUpdate(@Param("userId") Long userId,
+                                                 @Param("bookingId") Long bookingId);
 
-    List<Booking> findByCheckOutDateAndStatusNot(LocalDateTime time,
-                                                 Booking.Status status);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Reads up to {@code limit} bookings matching the specification in id order, fetching
+     * their users in the same statement; the response mapping reads the user's name.
+     */
+    default List<Booking> findWithUserBy(Specification<Booking> specification, int limit) {
+        return findBy(specification, query -> query
+                .project("user")
+                .sortBy(Sort.by("id"))
+                .limit(limit)
+                .all());
+    }
+
+    /**
+     * Ids of up to {@code limit} bookings matching the specification, in id order.
+     */
+    default List<Long> findIdsBy(Specification<Booking> specification, int limit) {
+        return findBy(specification, query -> query
+                .sortBy(Sort.by("id"))
+                .limit(limit)
+                .all()).stream()
+                .map(Booking::getId)
+                .toList();
+    }
+
+    @Query("SELECT b FROM Booking b WHERE b.accommodation.id = :accommodationId "
+            + "AND b.status IN :statuses "
+            + "AND b.checkInDate < :checkOutDate AND b.checkOutDate > :checkInDate "
+            + "AND (:excludedBookingId IS NULL OR b.id <> :excludedBookingId)")
+    List<Booking> findOverlappingBookings(@Param("accommodationId") Long accommodationId,
+                                          @Param("checkInDate") LocalDateTime checkInDate,
+                                          @Param("checkOutDate") LocalDateTime checkOutDate,
+                                          @Param("statuses") Collection<Booking.Status> statuses,
+                                          @Param("excludedBookingId") Long excludedBookingId);
+
+    /**
+     * Oldest active bookings whose check-out date has passed, read from the partial index
+     * on active bookings. Expired bookings leave that index, so the next call continues
+     * with the rest, and a booking that was made active again is picked up as well.
+     */
+    @Query(value = "SELECT * FROM bookings "
+            + "WHERE status IN ('PENDING', 'CONFIRMED') AND is_deleted = false "
+            + "AND check_out_date < :now "
+            + "ORDER BY check_out_date, id LIMIT :batchSize FOR UPDATE",
+            nativeQuery = true)
+    List<Booking> findFinishedActiveBookingsForUpdate(@Param("now") LocalDateTime now,
+                                                      @Param("batchSize") int batchSize);
 
     @Modifying
     @Query("UPDATE Booking b SET b.status = :status WHERE b.id IN :bookingIds")
@@ -35,4 +99,38 @@ public interface BookingRepository extends JpaRepository<Booking, Long>,
     @Query("UPDATE Booking b SET b.status = :status WHERE b.id IN :bookingId")
     void updateStatus(@Param("bookingId") Long bookingId,
                       @Param("status") Booking.Status status);
+
+    /**
+     * Locks the given bookings that are not in {@code status} yet, in id order, so two
+     * bulk updates over overlapping ranges cannot deadlock. Only ids are read, so
+     * bookings already loaded in the persistence context are not handed back stale.
+     */
+    @Query(value = "SELECT id FROM bookings WHERE id IN (:bookingIds) AND status <> :status "
+            + "AND is_deleted = false ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockForStatusChange(@Param("bookingIds") Collection<Long> bookingIds,
+                                   @Param("status") String status);
+
+    /**
+     * Locks the given bookings that are not deleted, in id order, and returns their
+     * current status. Like {@link #lockForStatusChange}, it reads only ids and statuses,
+     * so the status seen is the one the lock protects.
+     */
+    @Query(value = "SELECT id, status FROM bookings "
+            + "WHERE id IN (:bookingIds) AND is_deleted = false "
+            + "ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<BookingStatusView> lockStatusesForUpdate(
+            @Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id IN :bookingIds")
+    int updateStatusForBookings(@Param("bookingIds") Collection<Long> bookingIds,
+                                @Param("status") Booking.Status status);
+
+    interface BookingStatusView {
+        Long getId();
+
+        String getStatus();
+    }
 }
@@ -10,7 +10,8 @@ import org.springframework.stereotype.Component;
 
 @RequiredArgsConstructor
 @Component
-public class BookingSpecificationBuilder implements SpecificationBuilder<Booking> {
+public class BookingSpecificationBuilder implements SpecificationBuilder<Booking,
+        BookingFilterParameters> {
     private final SpecificationProviderManager<Booking> specificationProviderManager;
 
     @Override
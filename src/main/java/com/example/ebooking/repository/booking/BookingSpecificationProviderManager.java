@@ -9,11 +9,11 @@ import org.springframework.stereotype.Component;
 
 @RequiredArgsConstructor
 @Component
-public class BookingSpecificationProviderManager implements SpecificationProviderManager {
+public class BookingSpecificationProviderManager implements SpecificationProviderManager<Booking> {
     private final List<SpecificationProvider<Booking>> specificationProviderList;
 
     @Override
-    public SpecificationProvider getSpecificationProvider(String key) {
+    public SpecificationProvider<Booking> getSpecificationProvider(String key) {
         return specificationProviderList.stream()
                 .filter(b -> b.getKey().equals(key))
                 .findFirst()
@@ -0,0 +1,81 @@
+package com.example.ebooking.repository.idempotency;
+
+import com.example.ebooking.model.IdempotencyKey;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+    /**
+     * Reserves the key for the user until {@code lockedUntil} under a new lease token.
+     * Takes over a completed row whose TTL has run out, and a claim that was never
+     * completed once its lease has run out, so a request that died mid-way does not block
+     * its key for the whole TTL. Commits on its own so a concurrent retry with the same key
+     * sees the reservation at once.
+     *
+     * @return 1 if the caller owns the key now, 0 if a live row already holds it
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys "
+            + "(user_id, idempotency_key, request_hash, created_at, locked_until, lease_token, "
+            + "expires_at) "
+            + "VALUES (:userId, :key, :requestHash, :createdAt, :lockedUntil, :leaseToken, "
+            + ":lockedUntil) "
+            + "ON CONFLICT (user_id, idempotency_key) DO UPDATE "
+            + "SET request_hash = EXCLUDED.request_hash, response = NULL, "
+            + "created_at = EXCLUDED.created_at, locked_until = EXCLUDED.locked_until, "
+            + "lease_token = EXCLUDED.lease_token, expires_at = EXCLUDED.expires_at "
+            + "WHERE (idempotency_keys.response IS NULL "
+            + "AND idempotency_keys.locked_until <= EXCLUDED.created_at) "
+            + "OR idempotency_keys.expires_at <= EXCLUDED.created_at",
+            nativeQuery = true)
+    int claim(@Param("userId") Long userId,
+              @Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("createdAt") LocalDateTime createdAt,
+              @Param("lockedUntil") LocalDateTime lockedUntil,
+              @Param("leaseToken") String leaseToken);
+
+    Optional<IdempotencyKey> findByUserIdAndKey(Long userId, String key);
+
+    /**
+     * Stores the response if the caller still holds the lease. After its lease ran out
+     * the key may belong to a newer request, whose claim is left alone.
+     *
+     * @return 1 if the response was stored, 0 if the lease was lost
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.response = :response, k.lockedUntil = NULL, "
+            + "k.leaseToken = NULL, k.expiresAt = :expiresAt "
+            + "WHERE k.userId = :userId AND k.key = :key AND k.leaseToken = :leaseToken")
+    int complete(@Param("userId") Long userId,
+                 @Param("key") String key,
+                 @Param("leaseToken") String leaseToken,
+                 @Param("response") String response,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Frees the key if the caller still holds the lease, so that a newer request's claim
+     * is never deleted.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.userId = :userId AND k.key = :key "
+            + "AND k.leaseToken = :leaseToken")
+    int release(@Param("userId") Long userId,
+                @Param("key") String key,
+                @Param("leaseToken") String leaseToken);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
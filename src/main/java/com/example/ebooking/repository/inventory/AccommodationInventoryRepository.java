@@ -0,0 +1,70 @@
+package com.example.ebooking.repository.inventory;
+
+import com.example.ebooking.model.AccommodationInventory;
+import java.time.LocalDate;
+import java.util.Collection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccommodationInventoryRepository extends JpaRepository<AccommodationInventory,
+        AccommodationInventory.InventoryId> {
+    @Query("SELECT COALESCE(MAX(i.bookedUnits), 0) FROM AccommodationInventory i "
+            + "WHERE i.accommodationId = :accommodationId "
+            + "AND i.night >= :fromNight AND i.night < :toNight")
+    int findMaxBookedUnits(@Param("accommodationId") Long accommodationId,
+                           @Param("fromNight") LocalDate fromNight,
+                           @Param("toNight") LocalDate toNight);
+
+    @Modifying
+    @Query(value = "INSERT INTO accommodation_inventory (accommodation_id, night, booked_units) "
+            + "SELECT :accommodationId, CAST(n AS date), :delta "
+            + "FROM generate_series(CAST(:fromNight AS timestamp), "
+            + "CAST(:toNight AS timestamp) - INTERVAL '1 day', INTERVAL '1 day') AS n "
+            + "ON CONFLICT (accommodation_id, night) DO UPDATE "
+            + "SET booked_units = accommodation_inventory.booked_units + EXCLUDED.booked_units",
+            nativeQuery = true)
+    void adjustBookedUnits(@Param("accommodationId") Long accommodationId,
+                           @Param("fromNight") LocalDate fromNight,
+                           @Param("toNight") LocalDate toNight,
+                           @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "UPDATE accommodation_inventory i "
+            + "SET booked_units = i.booked_units - r.units "
+            + "FROM (SELECT b.accommodation_id, CAST(n AS date) AS night, COUNT(*) AS units "
+            + "FROM bookings b "
+            + "CROSS JOIN LATERAL generate_series(date_trunc('day', b.check_in_date), "
+            + "GREATEST(date_trunc('day', b.check_out_date), "
+            + "date_trunc('day', b.check_in_date) + INTERVAL '1 day') - INTERVAL '1 day', "
+            + "INTERVAL '1 day') AS n "
+            + "WHERE b.id IN (:bookingIds) AND b.status IN ('PENDING', 'CONFIRMED') "
+            + "GROUP BY b.accommodation_id, CAST(n AS date)) r "
+            + "WHERE i.accommodation_id = r.accommodation_id AND i.night = r.night",
+            nativeQuery = true)
+    int releaseNightsForBookings(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying
+    @Query(value = "LOCK TABLE accommodation_inventory IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM accommodation_inventory", nativeQuery = true)
+    void deleteAllNights();
+
+    @Modifying
+    @Query(value = "INSERT INTO accommodation_inventory (accommodation_id, night, booked_units) "
+            + "SELECT b.accommodation_id, CAST(n AS date), COUNT(*) "
+            + "FROM bookings b "
+            + "CROSS JOIN LATERAL generate_series(date_trunc('day', b.check_in_date), "
+            + "GREATEST(date_trunc('day', b.check_out_date), "
+            + "date_trunc('day', b.check_in_date) + INTERVAL '1 day') - INTERVAL '1 day', "
+            + "INTERVAL '1 day') AS n "
+            + "WHERE b.is_deleted = false AND b.status IN ('PENDING', 'CONFIRMED') "
+            + "GROUP BY b.accommodation_id, CAST(n AS date)",
+            nativeQuery = true)
+    int insertNightsFromBookings();
+}
@@ -0,0 +1,44 @@
+package com.example.ebooking.repository.notification;
+
+import com.example.ebooking.model.NotificationOutboxMessage;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationOutboxRepository
+        extends JpaRepository<NotificationOutboxMessage, Long> {
+    /**
+     * Oldest due messages, locked for the current transaction. Rows already locked by
+     * another relay are skipped, and the caller leases the batch out by moving its
+     * {@code next_attempt_at}, so several instances can drain the outbox in parallel
+     * without sending a message twice.
+     */
+    @Query(value = "SELECT * FROM notification_outbox "
+            + "WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<NotificationOutboxMessage> findDueForUpdate(@Param("now") LocalDateTime now,
+                                                     @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxMessage m SET m.status = 'SENT', m.sentAt = :sentAt "
+            + "WHERE m.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxMessage m "
+            + "WHERE m.status = 'SENT' AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxMessage m "
+            + "WHERE m.status = 'FAILED' AND m.createdAt < :before")
+    int deleteFailedBefore(@Param("before") LocalDateTime before);
+
+    long countByStatus(NotificationOutboxMessage.Status status);
+}
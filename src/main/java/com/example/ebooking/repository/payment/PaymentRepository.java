@@ -1,10 +1,14 @@
 package com.example.ebooking.repository.payment;
 
+import com.example.ebooking.dto.payment.PaymentSummaryDto;
 import com.example.ebooking.model.Payment;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -27,12 +31,53 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Modifying
     @Query("UPDATE Payment p SET p.status = :status WHERE p.status = :pendingStatus "
             + "AND p.expiredTime < :currentTime")
-    void updateExpiredPayments(@Param("currentTime") Long currentTime,
-                               @Param("status") Payment.PaymentStatus status,
-                               @Param("pendingStatus") Payment.PaymentStatus pendingStatus);
+    int updateExpiredPayments(@Param("currentTime") Long currentTime,
+                              @Param("status") Payment.PaymentStatus status,
+                              @Param("pendingStatus") Payment.PaymentStatus pendingStatus);
 
-    Page<Payment> findByBookingUserId(Long userId, Pageable pageable);
+    @Query("SELECT new com.example.ebooking.dto.payment.PaymentSummaryDto("
+            + "p.id, p.booking.id, p.sessionId, p.sessionUrl, p.amount, p.status) "
+            + "FROM Payment p WHERE p.user.id = :userId AND p.id > :afterId "
+            + "ORDER BY p.id")
+    Slice<PaymentSummaryDto> findSummariesByUserId(@Param("userId") Long userId,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
 
-    boolean existsByBookingUserIdAndStatus(Long userId,
-                                           Payment.PaymentStatus status);
+    @Query("SELECT new com.example.ebooking.dto.payment.PaymentSummaryDto("
+            + "p.id, p.booking.id, p.sessionId, p.sessionUrl, p.amount, p.status) "
+            + "FROM Payment p WHERE p.id > :afterId ORDER BY p.id")
+    Slice<PaymentSummaryDto> findSummaries(@Param("afterId") Long afterId, Pageable pageable);
+
+    boolean existsByUserIdAndStatus(Long userId, Payment.PaymentStatus status);
+
+    /**
+     * Newest checkout session of the booking with the given status and amount that stays
+     * valid past {@code validAfter} (epoch seconds). Served by idx_payments_booking_status.
+     */
+    @Query("SELECT p FROM Payment p WHERE p.booking.id = :bookingId AND p.status = :status "
+            + "AND p.amount = :amount AND p.expiredTime > :validAfter ORDER BY p.id DESC")
+    Optional<Payment> findReusableSession(@Param("bookingId") Long bookingId,
+                                          @Param("amount") BigDecimal amount,
+                                          @Param("status") Payment.PaymentStatus status,
+                                          @Param("validAfter") Long validAfter,
+                                          Limit limit);
+
+    List<Payment> findBySessionIdInAndStatusNot(Collection<String> sessionIds,
+                                                Payment.PaymentStatus status);
+
+    /**
+     * Clears the persistence context, so payments loaded before the update are detached and
+     * later changes to them are not flushed row by row.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :status WHERE p.id IN :paymentIds")
+    int updateStatusForPayments(@Param("paymentIds") Collection<Long> paymentIds,
+                                @Param("status") Payment.PaymentStatus status);
+
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :status "
+            + "WHERE p.sessionId IN :sessionIds AND p.status = :currentStatus")
+    int updateStatusBySessionIds(@Param("sessionIds") Collection<String> sessionIds,
+                                 @Param("currentStatus") Payment.PaymentStatus currentStatus,
+                                 @Param("status") Payment.PaymentStatus status);
 }
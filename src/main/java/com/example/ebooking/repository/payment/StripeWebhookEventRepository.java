@@ -0,0 +1,54 @@
+package com.example.ebooking.repository.payment;
+
+import com.example.ebooking.model.StripeWebhookEvent;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, Long> {
+    /**
+     * Stores the event unless one with the same Stripe event id is already in the inbox.
+     * Stripe delivers at least once, so redeliveries are acknowledged but not stored again.
+     *
+     * @return 1 if the event was stored, 0 if it was a duplicate
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stripe_webhook_events "
+            + "(event_id, type, payload, status, received_at) "
+            + "VALUES (:eventId, :type, :payload, 'PENDING', :receivedAt) "
+            + "ON CONFLICT (event_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId,
+                       @Param("type") String type,
+                       @Param("payload") String payload,
+                       @Param("receivedAt") LocalDateTime receivedAt);
+
+    @Query(value = "SELECT * FROM stripe_webhook_events WHERE status = 'PENDING' "
+            + "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<StripeWebhookEvent> findPendingForUpdate(@Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("UPDATE StripeWebhookEvent e SET e.status = :status, e.processedAt = :processedAt "
+            + "WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") List<Long> ids,
+                      @Param("status") StripeWebhookEvent.Status status,
+                      @Param("processedAt") LocalDateTime processedAt);
+
+    /**
+     * Marks the event failed and keeps the reason on the row. Setting the status back to
+     * PENDING queues it for another run.
+     */
+    @Modifying
+    @Query(value = "UPDATE stripe_webhook_events SET status = 'FAILED', last_error = :error, "
+            + "processed_at = :processedAt WHERE id = :id",
+            nativeQuery = true)
+    int markFailed(@Param("id") Long id,
+                   @Param("error") String error,
+                   @Param("processedAt") LocalDateTime processedAt);
+}
@@ -2,6 +2,7 @@ package com.example.ebooking.security;
 
 import com.example.ebooking.dto.user.UserLoginRequestDto;
 import com.example.ebooking.dto.user.UserLoginResponseDto;
+import com.example.ebooking.model.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,7 +22,7 @@ public class AuthenticationService {
                         requestDto.getPassword()
                 )
         );
-        String token = jwtUtil.generateToken(requestDto.getEmail());
+        String token = jwtUtil.generateToken((User) authentication.getPrincipal());
         return new UserLoginResponseDto(token);
     }
 }
@@ -1,8 +1,10 @@
 package com.example.ebooking.security;
 
+import com.example.ebooking.config.CacheConfig;
 import com.example.ebooking.exception.exceptions.EntityNotFoundException;
 import com.example.ebooking.repository.user.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -13,6 +15,7 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
     private final UserRepository userRepository;
 
+    @Cacheable(cacheNames = CacheConfig.PRINCIPALS_CACHE, key = "#email")
     @Override
     public UserDetails loadUserByUsername(String email)
             throws UsernameNotFoundException {
@@ -1,10 +1,15 @@
 package com.example.ebooking.security;
 
+import com.example.ebooking.model.Role;
+import com.example.ebooking.model.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -31,9 +36,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
         String token = getToken(request);
-        if (token != null && jwtUtil.isValidationToken(token)) {
-            String userName = jwtUtil.getUserName(token);
-            UserDetails user = userDetailsService.loadUserByUsername(userName);
+        if (token != null) {
+            Claims claims = jwtUtil.parseToken(token);
+            UserDetails user = claims.containsKey(JwtUtil.ROLES_CLAIM)
+                    ? getUserFromClaims(claims)
+                    : userDetailsService.loadUserByUsername(claims.getSubject());
             Authentication authentication = new UsernamePasswordAuthenticationToken(
                     user, null, user.getAuthorities()
             );
@@ -42,6 +49,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private User getUserFromClaims(Claims claims) {
+        User user = new User();
+        user.setId(claims.get(JwtUtil.USER_ID_CLAIM, Long.class));
+        user.setEmail(claims.getSubject());
+        List<?> roleNames = claims.get(JwtUtil.ROLES_CLAIM, List.class);
+        user.setRoles(roleNames.stream()
+                .map(roleName -> {
+                    Role role = new Role();
+                    role.setRole(Role.RoleName.valueOf(roleName.toString()));
+                    return role;
+                })
+                .collect(Collectors.toSet()));
+        return user;
+    }
+
     private String getToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_STARTS)) {
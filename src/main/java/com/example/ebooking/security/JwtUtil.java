@@ -1,26 +1,40 @@
 package com.example.ebooking.security;
 
+import com.example.ebooking.model.Role;
+import com.example.ebooking.model.User;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
-import java.util.function.Function;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtUtil {
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+
     private final SecretKey secret;
+    private final JwtParser parser;
 
     @Value("${jwt.expiration}")
     private long expiration;
 
+    @Value("${jwt.stateless.enabled}")
+    private boolean statelessEnabled;
+
+    @Value("${jwt.stateless.expiration}")
+    private long statelessExpiration;
+
     public JwtUtil(@Value("${jwt.secret}") String secretKey) {
         secret = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(secret)
+                .build();
     }
 
     public String generateToken(String userName) {
@@ -32,29 +46,35 @@ public class JwtUtil {
                 .compact();
     }
 
-    public boolean isValidationToken(String token) {
-        try {
-            Jws<Claims> claimsJws = Jwts.parser()
-                    .verifyWith(secret)
-                    .build()
-                    .parseSignedClaims(token);
+    /**
+     * In stateless mode the token also carries the user id and role names, so the
+     * filter can authenticate without a database lookup. Such tokens get the shorter
+     * stateless expiration, which bounds how long a role change takes to apply.
+     */
+    public String generateToken(User user) {
+        if (!statelessEnabled) {
+            return generateToken(user.getEmail());
+        }
+        return Jwts.builder()
+                .subject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, user.getRoles().stream()
+                        .map(Role::getAuthority)
+                        .toList())
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date((System.currentTimeMillis() + statelessExpiration)))
+                .signWith(secret)
+                .compact();
+    }
 
-            return !claimsJws.getPayload().getExpiration().before(new Date());
+    /**
+     * Verifies the signature and expiration in a single pass and returns the claims.
+     */
+    public Claims parseToken(String token) {
+        try {
+            return parser.parseSignedClaims(token).getPayload();
         } catch (JwtException | IllegalArgumentException e) {
             throw new JwtException("Expired or invalid JWT token");
         }
     }
-
-    public String getUserName(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
-    }
-
-    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parser()
-                .verifyWith(secret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claimsResolver.apply(claims);
-    }
 }
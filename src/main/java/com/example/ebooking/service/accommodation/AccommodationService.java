@@ -2,11 +2,15 @@ package com.example.ebooking.service.accommodation;
 
 import com.example.ebooking.dto.accommodation.AccommodationRequestDto;
 import com.example.ebooking.dto.accommodation.AccommodationResponseDto;
-import java.util.List;
-import org.springframework.data.domain.Pageable;
+import com.example.ebooking.dto.accommodation.AccommodationSearchParameters;
+import com.example.ebooking.dto.pagination.CursorPage;
 
 public interface AccommodationService {
-    List<AccommodationResponseDto> getAll(Pageable pageable);
+    CursorPage<AccommodationResponseDto> getAll(String after, int size);
+
+    CursorPage<AccommodationResponseDto> search(AccommodationSearchParameters parameters,
+                                                String after,
+                                                int size);
 
     AccommodationResponseDto getAccommodationById(Long id);
 
@@ -1,15 +1,24 @@
 package com.example.ebooking.service.accommodation;
 
+import com.example.ebooking.config.CacheConfig;
 import com.example.ebooking.dto.accommodation.AccommodationRequestDto;
 import com.example.ebooking.dto.accommodation.AccommodationResponseDto;
+import com.example.ebooking.dto.accommodation.AccommodationSearchParameters;
+import com.example.ebooking.dto.pagination.CursorPage;
 import com.example.ebooking.exception.exceptions.EntityNotFoundException;
 import com.example.ebooking.mapper.AccommodationMapper;
 import com.example.ebooking.model.Accommodation;
 import com.example.ebooking.repository.accommodation.AccommodationRepository;
+import com.example.ebooking.repository.accommodation.AccommodationSpecificationBuilder;
 import com.example.ebooking.service.notification.NotificationService;
-import java.util.List;
+import com.example.ebooking.service.pagination.Cursors;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Pageable;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,13 +29,31 @@ public class AccommodationServiceImpl implements AccommodationService {
     private final AccommodationRepository accommodationRepository;
     private final AccommodationMapper accommodationMapper;
     private final NotificationService notificationService;
+    private final AccommodationSpecificationBuilder specificationBuilder;
 
+    @Cacheable(cacheNames = CacheConfig.ACCOMMODATION_PAGES_CACHE,
+            key = "#after + ':' + #size")
     @Override
-    public List<AccommodationResponseDto> getAll(Pageable pageable) {
-        return accommodationMapper.toListDto(accommodationRepository.findAll(pageable)
-                .getContent());
+    public CursorPage<AccommodationResponseDto> getAll(String after, int size) {
+        Slice<Accommodation> accommodations = accommodationRepository
+                .findByIdGreaterThanOrderByIdAsc(Cursors.decode(after), Cursors.limit(size));
+        return Cursors.toPage(accommodations, Accommodation::getId,
+                accommodationMapper::toListDto);
     }
 
+    @Override
+    public CursorPage<AccommodationResponseDto> search(AccommodationSearchParameters parameters,
+                                                       String after,
+                                                       int size) {
+        Long afterId = Cursors.decode(after);
+        Specification<Accommodation> specification = specificationBuilder.build(parameters)
+                .and((root, query, criteriaBuilder) ->
+                        criteriaBuilder.greaterThan(root.get("id"), afterId));
+        return Cursors.toPage(accommodationRepository.findWindowBy(specification, size + 1),
+                size, Accommodation::getId, accommodationMapper::toListDto);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.ACCOMMODATIONS_CACHE, key = "#id")
     @Override
     public AccommodationResponseDto getAccommodationById(Long id) {
         Accommodation accommodation = accommodationRepository.findById(id)
@@ -36,6 +63,7 @@ public class AccommodationServiceImpl implements AccommodationService {
         return accommodationMapper.toDto(accommodation);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ACCOMMODATION_PAGES_CACHE, allEntries = true)
     @Override
     public AccommodationResponseDto save(AccommodationRequestDto requestDto) {
         Accommodation accommodation = accommodationMapper.toModel(requestDto);
@@ -46,6 +74,11 @@ public class AccommodationServiceImpl implements AccommodationService {
         return accommodationMapper.toDto(savedAccommodation);
     }
 
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.ACCOMMODATIONS_CACHE, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.ACCOMMODATION_PAGES_CACHE,
+                    allEntries = true)
+    )
     @Override
     public AccommodationResponseDto update(AccommodationRequestDto requestDto, Long id) {
         Accommodation accommodation = accommodationRepository.findById(id)
@@ -56,6 +89,10 @@ public class AccommodationServiceImpl implements AccommodationService {
         return accommodationMapper.toDto(accommodationRepository.save(accommodation));
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.ACCOMMODATIONS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.ACCOMMODATION_PAGES_CACHE, allEntries = true)
+    })
     @Override
     public void deleteById(Long id) {
         accommodationRepository.deleteById(id);
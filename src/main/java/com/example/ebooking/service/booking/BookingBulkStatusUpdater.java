@@ -0,0 +1,72 @@
+package com.example.ebooking.service.booking;
+
+import com.example.ebooking.dto.booking.BookingStatusChunkDto;
+import com.example.ebooking.dto.booking.BulkUpdateBookingStatusRequestDto;
+import com.example.ebooking.dto.booking.BulkUpdateBookingStatusResponseDto;
+import com.example.ebooking.model.Booking;
+import com.example.ebooking.repository.booking.BookingSpecificationBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+/**
+ * Changes the status of many bookings for admins. The target, a list of ids or a filter,
+ * is walked in id order chunk by chunk; every chunk is committed on its own, so locks
+ * are held briefly and a failure keeps the chunks already done. The first failed chunk
+ * stops the run and is reported with its error; repeating the request picks up from
+ * there, as bookings already in the new status are skipped.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingBulkStatusUpdater {
+    private static final Long START_ID = 0L;
+
+    private final BookingService bookingService;
+    private final BookingSpecificationBuilder specificationBuilder;
+
+    @Value("${booking.bulk-status.chunk-size}")
+    private int chunkSize;
+
+    public BulkUpdateBookingStatusResponseDto updateStatus(
+            BulkUpdateBookingStatusRequestDto requestDto) {
+        Booking.Status status = Booking.Status.valueOf(requestDto.getStatus());
+        Specification<Booking> target = buildTarget(requestDto);
+
+        List<BookingStatusChunkDto> chunks = new ArrayList<>();
+        Long afterId = START_ID;
+        BookingStatusChunkDto result;
+        do {
+            int chunk = chunks.size() + 1;
+            try {
+                result = bookingService.updateStatusChunk(target, status, chunk, afterId,
+                        chunkSize);
+            } catch (RuntimeException e) {
+                System.out.println("Bulk status update failed at chunk " + chunk + ": "
+                        + e.getMessage());
+                chunks.add(new BookingStatusChunkDto(chunk, null, null, 0, 0, List.of(),
+                        e.getMessage()));
+                break;
+            }
+            if (result.matched() > 0) {
+                chunks.add(result);
+                afterId = result.toId();
+            }
+        } while (result.matched() == chunkSize);
+
+        return new BulkUpdateBookingStatusResponseDto(status.name(),
+                chunks.stream().mapToInt(BookingStatusChunkDto::matched).sum(),
+                chunks.stream().mapToInt(BookingStatusChunkDto::updated).sum(),
+                chunks);
+    }
+
+    private Specification<Booking> buildTarget(BulkUpdateBookingStatusRequestDto requestDto) {
+        if (requestDto.getBookingIds() == null || requestDto.getBookingIds().isEmpty()) {
+            return specificationBuilder.build(requestDto.getFilter());
+        }
+        List<Long> bookingIds = List.copyOf(requestDto.getBookingIds());
+        return (root, query, criteriaBuilder) -> root.get("id").in(bookingIds);
+    }
+}
@@ -3,15 +3,17 @@ package com.example.ebooking.service.booking;
 import com.example.ebooking.dto.booking.BookingFilterParameters;
 import com.example.ebooking.dto.booking.BookingRequestDto;
 import com.example.ebooking.dto.booking.BookingResponseDto;
+import com.example.ebooking.dto.booking.BookingStatusChunkDto;
 import com.example.ebooking.dto.booking.UpdateBookingStatusRequestDto;
+import com.example.ebooking.dto.pagination.CursorPage;
+import com.example.ebooking.model.Booking;
 import com.example.ebooking.model.User;
-import java.util.List;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 
 public interface BookingService {
     BookingResponseDto save(User user, BookingRequestDto requestDto);
 
-    List<BookingResponseDto> getAllBookingsByUser(User user, Pageable pageable);
+    CursorPage<BookingResponseDto> getAllBookingsByUser(User user, String after, int size);
 
     BookingResponseDto getBookingByIdForUser(User user, Long id);
 
@@ -23,11 +25,21 @@ public interface BookingService {
 
     void deleteById(User user, Long id);
 
-    List<BookingResponseDto> getAllBookingByUserIdAndStatus(
-            BookingFilterParameters parameters, Pageable pageable);
+    CursorPage<BookingResponseDto> getAllBookingByUserIdAndStatus(
+            BookingFilterParameters parameters, String after, int size);
 
     BookingResponseDto updateStatusById(UpdateBookingStatusRequestDto requestDto,
                                         Long id);
 
-    void checkHourlyExpiredBookings();
+    /**
+     * Moves the next {@code chunkSize} bookings of {@code target} after {@code afterId}
+     * that are not in {@code status} yet to it, in a transaction of its own.
+     */
+    BookingStatusChunkDto updateStatusChunk(Specification<Booking> target,
+                                            Booking.Status status,
+                                            int chunk,
+                                            Long afterId,
+                                            int chunkSize);
+
+    int expireFinishedBookings(int batchSize);
 }
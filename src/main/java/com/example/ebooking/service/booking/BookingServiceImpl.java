@@ -3,7 +3,9 @@ package com.example.ebooking.service.booking;
 import com.example.ebooking.dto.booking.BookingFilterParameters;
 import com.example.ebooking.dto.booking.BookingRequestDto;
 import com.example.ebooking.dto.booking.BookingResponseDto;
+import com.example.ebooking.dto.booking.BookingStatusChunkDto;
 import com.example.ebooking.dto.booking.UpdateBookingStatusRequestDto;
+import com.example.ebooking.dto.pagination.CursorPage;
 import com.example.ebooking.exception.exceptions.BookingAvailabilityException;
 import com.example.ebooking.exception.exceptions.EntityNotFoundException;
 import com.example.ebooking.exception.exceptions.PendingPaymentException;
@@ -15,19 +17,19 @@ import com.example.ebooking.repository.accommodation.AccommodationRepository;
 import com.example.ebooking.repository.booking.BookingRepository;
 import com.example.ebooking.repository.booking.BookingSpecificationBuilder;
 import com.example.ebooking.repository.user.UserRepository;
+import com.example.ebooking.service.inventory.AccommodationInventoryService;
 import com.example.ebooking.service.notification.NotificationService;
+import com.example.ebooking.service.pagination.Cursors;
 import com.example.ebooking.service.payment.StripePaymentService;
+import java.time.Clock;
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,6 +37,10 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 @Transactional
 public class BookingServiceImpl implements BookingService {
+    public static final List<Booking.Status> ACTIVE_STATUSES = List.of(
+            Booking.Status.PENDING,
+            Booking.Status.CONFIRMED);
+
     private final BookingRepository bookingRepository;
     private final AccommodationRepository accommodationRepository;
     private final BookingMapper bookingMapper;
@@ -42,10 +48,12 @@ public class BookingServiceImpl implements BookingService {
     private final BookingSpecificationBuilder specificationBuilder;
     private final NotificationService notificationService;
     private final StripePaymentService paymentService;
+    private final AccommodationInventoryService inventoryService;
+    private final Clock clock;
 
     @Override
     public BookingResponseDto save(User user, BookingRequestDto requestDto) {
-        if (paymentService.existsByBookingUserIdAndStatus(user.getId())) {
+        if (paymentService.hasPendingPayment(user.getId())) {
             throw new PendingPaymentException("The user has unpaid reservations!");
         }
 
@@ -60,23 +68,26 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(Booking.Status.PENDING);
 
         Booking savedBooking = bookingRepository.save(booking);
+        reserveInventory(savedBooking);
         notificationService.sendBookingCreateMessage(accommodation, userFromDB, savedBooking);
 
         return bookingMapper.toDto(savedBooking);
     }
 
     @Override
-    public List<BookingResponseDto> getAllBookingsByUser(User user,
-                                                         Pageable pageable) {
-        Page<Booking> bookingsFromDB = bookingRepository.findByUserId(user.getId(),
-                pageable);
-
-        if (bookingsFromDB.getContent().isEmpty()) {
+    public CursorPage<BookingResponseDto> getAllBookingsByUser(User user, String after,
+                                                               int size) {
+        Long afterId = Cursors.decode(after);
+        Slice<Booking> bookingsFromDB = bookingRepository
+                .findByUserIdAndIdGreaterThanOrderByIdAsc(user.getId(), afterId,
+                        Cursors.limit(size));
+
+        if (bookingsFromDB.getContent().isEmpty() && Cursors.FIRST_PAGE_ID.equals(afterId)) {
             throw new EntityNotFoundException("Can`t find bookings "
                     + "by user id: " + user.getId());
         }
 
-        return bookingMapper.toListDto(bookingsFromDB.getContent());
+        return Cursors.toPage(bookingsFromDB, Booking::getId, bookingMapper::toListDto);
     }
 
     @Override
@@ -90,156 +101,235 @@ public class BookingServiceImpl implements BookingService {
             User user,
             BookingRequestDto requestDto,
             Long id) {
-        Booking bookingFromDB = getBookingByIdForAuthUser(user, id);
-        checkDateOverlappingAndAvalaibilityForUpdate(bookingFromDB, requestDto);
+        Booking bookingFromDB = getBookingByIdForAuthUserForUpdate(user, id);
+        Accommodation accommodation = getAccommodationForUpdate(bookingFromDB
+                .getAccommodation().getId());
+        boolean isActive = isActive(bookingFromDB);
+        if (isActive) {
+            releaseInventory(bookingFromDB);
+        }
+        checkAvailability(accommodation, requestDto.getCheckInDate(),
+                requestDto.getCheckOutDate(), bookingFromDB.getId());
         bookingMapper.updateBookingFromDto(requestDto, bookingFromDB);
-        return bookingMapper.toDto(bookingRepository.save(bookingFromDB));
+        Booking updatedBooking = bookingRepository.save(bookingFromDB);
+        if (isActive) {
+            reserveInventory(updatedBooking);
+        }
+        return bookingMapper.toDto(updatedBooking);
     }
 
     @Override
     public void canceledById(User user, Long id) {
-        Booking booking = bookingRepository.findByUserIdAndId(user.getId(), id)
+        Booking booking = bookingRepository.findByUserIdAndIdForUpdate(user.getId(), id)
                 .orElseThrow(
                         () -> new EntityNotFoundException("The user does not have a "
                                 + "reservation with id: " + id)
                 );
+        if (isActive(booking)) {
+            releaseInventory(booking);
+        }
         bookingRepository.updateStatus(id, Booking.Status.CANCELED);
         booking.setStatus(Booking.Status.CANCELED);
-        notificationService.sendBookingCanceledMessage(user, booking);
+        notificationService.sendBookingCanceledMessage(booking.getUser(), booking);
     }
 
     @Override
     public void deleteById(User user, Long id) {
-        Booking booking = bookingRepository.findByUserIdAndId(user.getId(), id)
+        Booking booking = bookingRepository.findByUserIdAndIdForUpdate(user.getId(), id)
                 .orElseThrow(
                         () -> new EntityNotFoundException("The user does not have a "
                                 + "reservation with id: " + id)
                 );
+        if (isActive(booking)) {
+            releaseInventory(booking);
+        }
         bookingRepository.deleteById(id);
     }
 
     @Override
-    public List<BookingResponseDto> getAllBookingByUserIdAndStatus(
+    public CursorPage<BookingResponseDto> getAllBookingByUserIdAndStatus(
             BookingFilterParameters parameters,
-            Pageable pageable) {
-        Specification<Booking> specification = specificationBuilder.build(parameters);
+            String after,
+            int size) {
+        Long afterId = Cursors.decode(after);
+        Specification<Booking> specification = specificationBuilder.build(parameters)
+                .and((root, query, criteriaBuilder) ->
+                        criteriaBuilder.greaterThan(root.get("id"), afterId));
 
-        Page<Booking> bookingPage = bookingRepository.findAll(specification, pageable);
+        List<Booking> bookings = bookingRepository.findWithUserBy(specification, size + 1);
 
-        List<BookingResponseDto> responseDtoList = bookingMapper.toListDto(bookingPage
-                .getContent());
+        CursorPage<BookingResponseDto> page = Cursors.toPage(bookings, size,
+                Booking::getId, bookingMapper::toListDto);
 
-        if (responseDtoList.isEmpty()) {
+        if (page.content().isEmpty()) {
             System.out.println("Nothing was found for the specified filters");
         }
-        return responseDtoList;
+        return page;
     }
 
     @Override
     public BookingResponseDto updateStatusById(UpdateBookingStatusRequestDto requestDto,
                                                Long id) {
-        Booking booking = bookingRepository.findById(id).orElseThrow(
+        Booking booking = bookingRepository.findByIdForUpdate(id).orElseThrow(
                 () -> new EntityNotFoundException("Can`t find booking "
                         + "by id: " + id)
         );
+        boolean wasActive = isActive(booking);
         booking.setStatus(Booking.Status.valueOf(requestDto.getStatus()));
+        if (wasActive && !isActive(booking)) {
+            releaseInventory(booking);
+        } else if (!wasActive && isActive(booking)) {
+            checkAvailability(getAccommodationForUpdate(booking.getAccommodation().getId()),
+                    booking.getCheckInDate(), booking.getCheckOutDate(), booking.getId());
+            reserveInventory(booking);
+        }
         return bookingMapper.toDto(bookingRepository.save(booking));
     }
 
-    @Scheduled(cron = "0 0 * * * ?")
+    /**
+     * Locks the chunk, moves the nights of bookings that become active or inactive, and
+     * changes the status with one UPDATE. A booking made active again keeps its old status
+     * when its nights were sold in the meantime, and is reported as unavailable. One
+     * notification covers the whole chunk.
+     */
+    @Override
+    public BookingStatusChunkDto updateStatusChunk(Specification<Booking> target,
+                                                   Booking.Status status,
+                                                   int chunk,
+                                                   Long afterId,
+                                                   int chunkSize) {
+        Specification<Booking> remaining = target
+                .and((root, query, criteriaBuilder) ->
+                        criteriaBuilder.greaterThan(root.get("id"), afterId))
+                .and((root, query, criteriaBuilder) ->
+                        criteriaBuilder.notEqual(root.get("status"), status));
+        List<Long> bookingIds = bookingRepository.findIdsBy(remaining, chunkSize);
+        if (bookingIds.isEmpty()) {
+            return new BookingStatusChunkDto(chunk, null, null, 0, 0, List.of(), null);
+        }
+
+        List<Long> lockedIds = bookingRepository.lockForStatusChange(bookingIds,
+                status.name());
+        List<Long> unavailableIds = List.of();
+        int updated = 0;
+        if (!lockedIds.isEmpty()) {
+            if (ACTIVE_STATUSES.contains(status)) {
+                unavailableIds = reserveInactiveBookings(lockedIds);
+            } else {
+                inventoryService.releaseBookings(lockedIds);
+            }
+            List<Long> changedIds = new ArrayList<>(lockedIds);
+            changedIds.removeAll(unavailableIds);
+            if (!changedIds.isEmpty()) {
+                updated = bookingRepository.updateStatusForBookings(changedIds, status);
+                notificationService.sendBookingStatusUpdateMessage(status, changedIds);
+            }
+        }
+        return new BookingStatusChunkDto(chunk, bookingIds.get(0),
+                bookingIds.get(bookingIds.size() - 1), bookingIds.size(), updated,
+                unavailableIds, null);
+    }
+
+    /**
+     * Expires the next batch of active bookings whose check-out date has passed, oldest
+     * first. Every run sweeps all finished active bookings, so a missed run is caught up
+     * and bookings made active again after their check-out are expired too. Only one node
+     * runs the job at a time; ClusterJobRunner holds its lock.
+     */
     @Override
-    public void checkHourlyExpiredBookings() {
-        LocalDateTime now = LocalDateTime.now().withMinute(0).withSecond(0).withNano(0);
+    public int expireFinishedBookings(int batchSize) {
+        LocalDateTime now = LocalDateTime.now(clock);
 
-        List<Booking> bookingExpiredList = bookingRepository.findByCheckOutDateAndStatusNot(now,
-                Booking.Status.CANCELED);
+        List<Booking> bookingExpiredList =
+                bookingRepository.findFinishedActiveBookingsForUpdate(now, batchSize);
+        if (bookingExpiredList.isEmpty()) {
+            return 0;
+        }
 
-        setBookingStatusToExpired(bookingExpiredList);
+        Set<Long> bookingIds = bookingExpiredList.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toSet());
+        inventoryService.releaseBookings(bookingIds);
+        bookingRepository.updateStatusForExpiredBooking(bookingIds, Booking.Status.EXPIRED);
 
         List<Long> listAccommodationIds = bookingExpiredList.stream()
                 .map(b -> b.getAccommodation().getId())
+                .distinct()
                 .collect(Collectors.toList());
-
-        if (!bookingExpiredList.isEmpty()) {
-            notificationService.sendAccommodationReleaseMessage(listAccommodationIds);
-        }
+        notificationService.sendAccommodationReleaseMessage(listAccommodationIds);
+        return bookingExpiredList.size();
     }
 
     private Accommodation checkDateOverlappingAndAvailabilityForSave(
             BookingRequestDto requestDto) {
-        List<Booking> bookingList = bookingRepository
-                .findByAccommodationId(requestDto.getAccommodationId());
-        List<Booking> overlappingBookings = bookingList.stream()
-                .filter(b -> isOverlapping(b, requestDto))
-                .collect(Collectors.toList());
+        Accommodation accommodation = getAccommodationForUpdate(requestDto
+                .getAccommodationId());
+        checkAvailability(accommodation, requestDto.getCheckInDate(),
+                requestDto.getCheckOutDate(), null);
+        return accommodation;
+    }
 
-        if (!overlappingBookings.isEmpty()) {
-            boolean isAvailable = checkAvailability(requestDto.getAccommodationId(),
-                    overlappingBookings.size())
-                    .values().iterator().next();
-            if (!isAvailable) {
-                String messages = overlappingBookings.stream()
-                        .map(booking -> String.format("Accommodation is booked from %s to %s.",
-                                booking.getCheckInDate(), booking.getCheckOutDate()))
-                        .collect(Collectors.joining("\n"));
-                throw new BookingAvailabilityException("There are no available "
-                        + "accommodations left for booking.\n" + messages);
-            }
+    private void checkAvailability(Accommodation accommodation,
+                                   LocalDateTime checkInDate,
+                                   LocalDateTime checkOutDate,
+                                   Long excludedBookingId) {
+        int bookedUnits = inventoryService.getMaxBookedUnits(
+                accommodation.getId(),
+                checkInDate,
+                checkOutDate);
+
+        if (bookedUnits >= accommodation.getAvailability()) {
+            String messages = bookingRepository.findOverlappingBookings(
+                            accommodation.getId(),
+                            checkInDate,
+                            checkOutDate,
+                            ACTIVE_STATUSES,
+                            excludedBookingId).stream()
+                    .map(b -> String.format("Accommodation is booked from %s to %s.",
+                            b.getCheckInDate(), b.getCheckOutDate()))
+                    .collect(Collectors.joining("\n"));
+            throw new BookingAvailabilityException("There are no available "
+                    + "accommodations left for booking.\n" + messages);
         }
-        return getAccommodationFromDB(requestDto.getAccommodationId());
     }
 
-    private Boolean checkDateOverlappingAndAvalaibilityForUpdate(
-            Booking booking,
-            BookingRequestDto requestDto) {
-        List<Booking> bookingList = bookingRepository
-                .findByAccommodationId(requestDto.getAccommodationId());
-        List<Booking> overlappingBookings = bookingList.stream()
-                .filter(b -> isOverlapping(b, requestDto))
-                .filter(b -> !b.getId().equals(booking.getId()))
-                .collect(Collectors.toList());
-
-        if (!overlappingBookings.isEmpty()) {
-            boolean isAvailable = checkAvailability(requestDto.getAccommodationId(),
-                    overlappingBookings.size())
-                    .values().iterator().next();
-            if (!isAvailable) {
-                String messages = overlappingBookings.stream()
-                        .map(b -> String.format("Accommodation is booked from %s to %s.",
-                                b.getCheckInDate(), b.getCheckOutDate()))
-                        .collect(Collectors.joining("\n"));
-                throw new BookingAvailabilityException("There are no available "
-                        + "accommodations left for booking.\n" + messages);
-            }
+    /**
+     * Takes the nights for the inactive bookings among the locked ones and returns the
+     * ids of those whose nights are no longer free.
+     */
+    private List<Long> reserveInactiveBookings(List<Long> lockedIds) {
+        List<Booking> inactiveBookings = bookingRepository.findAllById(lockedIds).stream()
+                .filter(booking -> !isActive(booking))
+                .toList();
+        if (inactiveBookings.isEmpty()) {
+            return List.of();
         }
-        return true;
+        Set<Long> reservedIds = inventoryService.reserveIfAvailable(inactiveBookings);
+        return inactiveBookings.stream()
+                .map(Booking::getId)
+                .filter(id -> !reservedIds.contains(id))
+                .sorted()
+                .toList();
     }
 
-    private Map<Accommodation, Boolean> checkAvailability(Long accommodationId,
-                                                          Integer numberOfMatches) {
-        Accommodation accommodation = getAccommodationFromDB(accommodationId);
-        boolean isAvailable = accommodation.getAvailability() > numberOfMatches;
-        return Map.of(accommodation, isAvailable);
+    private boolean isActive(Booking booking) {
+        return ACTIVE_STATUSES.contains(booking.getStatus());
     }
 
-    private Boolean isOverlapping(Booking booking, BookingRequestDto requestDto) {
-        LocalDateTime newBookingInDate = requestDto.getCheckInDate();
-        LocalDateTime newBookingOutDate = requestDto.getCheckOutDate();
-        LocalDateTime oldBookingInDate = booking.getCheckInDate();
-        LocalDateTime oldBookingOutDate = booking.getCheckOutDate();
-
-        boolean isStartInOverlap = newBookingInDate.isAfter(oldBookingInDate)
-                && newBookingInDate.isBefore(oldBookingOutDate);
-        boolean isStartEqualOverlap = newBookingInDate.equals(oldBookingInDate);
-        boolean isEndInOverlap = newBookingOutDate.isAfter(oldBookingInDate)
-                && newBookingOutDate.isBefore(oldBookingOutDate);
-        boolean isEndEqualOverlap = newBookingOutDate.equals(oldBookingOutDate);
+    private void reserveInventory(Booking booking) {
+        inventoryService.reserve(booking.getAccommodation().getId(),
+                booking.getCheckInDate(),
+                booking.getCheckOutDate());
+    }
 
-        return isStartInOverlap || isStartEqualOverlap || isEndInOverlap || isEndEqualOverlap;
+    private void releaseInventory(Booking booking) {
+        inventoryService.release(booking.getAccommodation().getId(),
+                booking.getCheckInDate(),
+                booking.getCheckOutDate());
     }
 
-    private Accommodation getAccommodationFromDB(Long id) {
-        return accommodationRepository.findById(id)
+    private Accommodation getAccommodationForUpdate(Long id) {
+        return accommodationRepository.findByIdForUpdate(id)
                 .orElseThrow(
                         () -> new EntityNotFoundException("Can`t find accommodation by id: "
                                 + id));
@@ -255,13 +345,13 @@ public class BookingServiceImpl implements BookingService {
                 );
     }
 
-    private void setBookingStatusToExpired(List<Booking> bookings) {
-        Set<Long> bookingIds = new HashSet<>();
-
-        for (Booking booking : bookings) {
-            bookingIds.add(booking.getId());
-        }
-        bookingRepository.updateStatusForExpiredBooking(bookingIds,
-                Booking.Status.EXPIRED);
+    private Booking getBookingByIdForAuthUserForUpdate(User user, Long id) {
+        return bookingRepository.findByUserIdAndIdForUpdate(user.getId(), id)
+                .orElseThrow(
+                        () -> new EntityNotFoundException("Booking with id "
+                                + id
+                                + " not found for user id: "
+                                + user.getId())
+                );
     }
 }
@@ -0,0 +1,152 @@
+package com.example.ebooking.service.idempotency;
+
+import com.example.ebooking.config.CacheConfig;
+import com.example.ebooking.exception.exceptions.IdempotencyKeyException;
+import com.example.ebooking.model.IdempotencyKey;
+import com.example.ebooking.repository.idempotency.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+/**
+ * Makes retried POST requests safe. The first request with an {@value #HEADER} reserves
+ * the key in Postgres, runs the action and stores its response; repeats of the same
+ * request get the stored response back without running the action again. The reservation
+ * is a short lease, so a key whose request died before finishing is free again soon;
+ * stored responses are kept for the TTL. Each claim carries its own lease token, and only
+ * the holder of the current token can store a response or free the key. Completed
+ * responses are also kept in a local cache, so most retries never reach the database.
+ */
+@Service
+public class IdempotencyService {
+    public static final String HEADER = "Idempotency-Key";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Cache cache;
+
+    @Value("${idempotency.ttl}")
+    private Duration ttl;
+
+    @Value("${idempotency.lease}")
+    private Duration lease;
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              ObjectMapper objectMapper,
+                              Clock clock,
+                              CacheManager cacheManager) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.cache = cacheManager.getCache(CacheConfig.IDEMPOTENCY_KEYS_CACHE);
+    }
+
+    /**
+     * Runs the action once per user and key. A key reused for another operation or
+     * request body, or sent again while the first request is still running, is rejected
+     * with {@link IdempotencyKeyException}. A failed action frees the key for a retry.
+     *
+     * @param key the client-supplied key; without one the action simply runs
+     */
+    public <T> T execute(Long userId, String key, String operation, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException(HEADER + " must have 1 to " + MAX_KEY_LENGTH
+                    + " characters");
+        }
+        final String requestHash = hash(operation, request);
+        String cacheKey = userId + ":" + key;
+        StoredResponse cached = cache.get(cacheKey, StoredResponse.class);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        String leaseToken = UUID.randomUUID().toString();
+        if (idempotencyKeyRepository.claim(userId, key, requestHash, now,
+                now.plus(lease), leaseToken) == 0) {
+            StoredResponse stored = idempotencyKeyRepository.findByUserIdAndKey(userId, key)
+                    .filter(idempotencyKey -> idempotencyKey.getResponse() != null)
+                    .map(this::toStoredResponse)
+                    .orElseThrow(() -> new IdempotencyKeyException("A request with this "
+                            + HEADER + " is still being processed"));
+            cache.put(cacheKey, stored);
+            return replay(stored, requestHash, responseType);
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            idempotencyKeyRepository.release(userId, key, leaseToken);
+            throw e;
+        }
+        String json = write(response);
+        if (idempotencyKeyRepository.complete(userId, key, leaseToken, json,
+                LocalDateTime.now(clock).plus(ttl)) == 1) {
+            cache.put(cacheKey, new StoredResponse(requestHash, json));
+        }
+        return response;
+    }
+
+    public int purgeExpired() {
+        return idempotencyKeyRepository.deleteExpired(LocalDateTime.now(clock));
+    }
+
+    private <T> T replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyException(HEADER + " was already used for "
+                    + "a different request");
+        }
+        try {
+            return objectMapper.readValue(stored.response(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't read stored response", e);
+        }
+    }
+
+    private StoredResponse toStoredResponse(IdempotencyKey idempotencyKey) {
+        return new StoredResponse(idempotencyKey.getRequestHash(),
+                idempotencyKey.getResponse());
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(write(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't write " + value.getClass().getSimpleName(),
+                    e);
+        }
+    }
+
+    private record StoredResponse(String requestHash, String response) {
+    }
+}
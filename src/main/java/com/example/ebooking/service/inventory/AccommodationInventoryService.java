@@ -0,0 +1,36 @@
+package com.example.ebooking.service.inventory;
+
+import com.example.ebooking.model.Booking;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+public interface AccommodationInventoryService {
+    int getMaxBookedUnits(Long accommodationId,
+                          LocalDateTime checkInDate,
+                          LocalDateTime checkOutDate);
+
+    void reserve(Long accommodationId,
+                 LocalDateTime checkInDate,
+                 LocalDateTime checkOutDate);
+
+    void release(Long accommodationId,
+                 LocalDateTime checkInDate,
+                 LocalDateTime checkOutDate);
+
+    /**
+     * Gives back the nights held by the active bookings among the given ones. Call it
+     * before their status changes.
+     */
+    void releaseBookings(Collection<Long> bookingIds);
+
+    /**
+     * Takes the nights for those of the given inactive bookings that still fit. The
+     * accommodations are locked in id order, as a new booking locks its accommodation, and
+     * a booking fits when its accommodation has a free unit on every night of the stay.
+     * Returns the ids of the bookings that got their nights.
+     */
+    Set<Long> reserveIfAvailable(Collection<Booking> bookings);
+
+    int rebuild();
+}
@@ -0,0 +1,107 @@
+package com.example.ebooking.service.inventory;
+
+import com.example.ebooking.model.Accommodation;
+import com.example.ebooking.model.Booking;
+import com.example.ebooking.repository.accommodation.AccommodationRepository;
+import com.example.ebooking.repository.inventory.AccommodationInventoryRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class AccommodationInventoryServiceImpl implements AccommodationInventoryService {
+    public static final int ONE_UNIT = 1;
+
+    private final AccommodationInventoryRepository inventoryRepository;
+    private final AccommodationRepository accommodationRepository;
+
+    @Override
+    public int getMaxBookedUnits(Long accommodationId,
+                                 LocalDateTime checkInDate,
+                                 LocalDateTime checkOutDate) {
+        return inventoryRepository.findMaxBookedUnits(accommodationId,
+                getFirstNight(checkInDate),
+                getEndNight(checkInDate, checkOutDate));
+    }
+
+    @Override
+    public void reserve(Long accommodationId,
+                        LocalDateTime checkInDate,
+                        LocalDateTime checkOutDate) {
+        inventoryRepository.adjustBookedUnits(accommodationId,
+                getFirstNight(checkInDate),
+                getEndNight(checkInDate, checkOutDate),
+                ONE_UNIT);
+    }
+
+    @Override
+    public void release(Long accommodationId,
+                        LocalDateTime checkInDate,
+                        LocalDateTime checkOutDate) {
+        inventoryRepository.adjustBookedUnits(accommodationId,
+                getFirstNight(checkInDate),
+                getEndNight(checkInDate, checkOutDate),
+                -ONE_UNIT);
+    }
+
+    @Override
+    public void releaseBookings(Collection<Long> bookingIds) {
+        inventoryRepository.releaseNightsForBookings(bookingIds);
+    }
+
+    @Override
+    public Set<Long> reserveIfAvailable(Collection<Booking> bookings) {
+        Map<Long, List<Booking>> bookingsByAccommodation = bookings.stream()
+                .sorted(Comparator.comparing(Booking::getId))
+                .collect(Collectors.groupingBy(booking -> booking.getAccommodation().getId(),
+                        TreeMap::new, Collectors.toList()));
+
+        Set<Long> reservedIds = new HashSet<>();
+        bookingsByAccommodation.forEach((accommodationId, accommodationBookings) -> {
+            Optional<Accommodation> accommodation = accommodationRepository
+                    .findByIdForUpdate(accommodationId);
+            if (accommodation.isEmpty()) {
+                return;
+            }
+            for (Booking booking : accommodationBookings) {
+                if (getMaxBookedUnits(accommodationId, booking.getCheckInDate(),
+                        booking.getCheckOutDate()) < accommodation.get().getAvailability()) {
+                    reserve(accommodationId, booking.getCheckInDate(),
+                            booking.getCheckOutDate());
+                    reservedIds.add(booking.getId());
+                }
+            }
+        });
+        return reservedIds;
+    }
+
+    @Override
+    public int rebuild() {
+        inventoryRepository.lockForRebuild();
+        inventoryRepository.deleteAllNights();
+        return inventoryRepository.insertNightsFromBookings();
+    }
+
+    private LocalDate getFirstNight(LocalDateTime checkInDate) {
+        return checkInDate.toLocalDate();
+    }
+
+    private LocalDate getEndNight(LocalDateTime checkInDate, LocalDateTime checkOutDate) {
+        LocalDate firstNight = getFirstNight(checkInDate);
+        LocalDate checkOutDay = checkOutDate.toLocalDate();
+        return checkOutDay.isAfter(firstNight) ? checkOutDay : firstNight.plusDays(1);
+    }
+}
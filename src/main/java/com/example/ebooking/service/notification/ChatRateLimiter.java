@@ -0,0 +1,49 @@
+package com.example.ebooking.service.notification;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token bucket per chat id. Each chat may send up to {@code burst} messages at once,
+ * after which tokens come back at {@code messagesPerMinute}.
+ */
+public class ChatRateLimiter {
+    private static final double MILLIS_PER_MINUTE = 60_000d;
+
+    private final Clock clock;
+    private final int burst;
+    private final double tokensPerMilli;
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public ChatRateLimiter(Clock clock, int messagesPerMinute, int burst) {
+        this.clock = clock;
+        this.burst = burst;
+        this.tokensPerMilli = messagesPerMinute / MILLIS_PER_MINUTE;
+    }
+
+    public boolean tryAcquire(Long chatId) {
+        return buckets.computeIfAbsent(chatId, id -> new Bucket(burst, clock.millis()))
+                .tryAcquire(clock.millis());
+    }
+
+    private class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+
+        private synchronized boolean tryAcquire(long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerMilli);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
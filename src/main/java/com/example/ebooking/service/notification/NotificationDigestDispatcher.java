@@ -0,0 +1,117 @@
+package com.example.ebooking.service.notification;
+
+import com.example.ebooking.bot.NotificationBot;
+import com.example.ebooking.exception.exceptions.NotificationException;
+import com.example.ebooking.model.NotificationOutboxMessage;
+import com.example.ebooking.model.NotificationType;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces outbox messages into digest messages and sends them to the admin chat.
+ * Messages of the same type become one digest; types are sent in the order their first
+ * message appears and messages keep their order inside a digest. Sending stops as soon
+ * as the chat is over its rate limit, leaving the rest for the next relay run.
+ */
+@Component
+public class NotificationDigestDispatcher {
+    private static final String DIGEST_HEADER = "%d %s in the last %ds";
+    private static final String MESSAGE_SEPARATOR = System.lineSeparator()
+            + System.lineSeparator();
+
+    private final NotificationBot notificationBot;
+    private final ChatRateLimiter rateLimiter;
+    private final Duration window;
+    private final int maxMessageLength;
+
+    public NotificationDigestDispatcher(
+            NotificationBot notificationBot,
+            Clock clock,
+            @Value("${notification.digest.window}") Duration window,
+            @Value("${notification.digest.max-message-length}") int maxMessageLength,
+            @Value("${notification.rate-limit.messages-per-minute}") int messagesPerMinute,
+            @Value("${notification.rate-limit.burst}") int burst) {
+        this.notificationBot = notificationBot;
+        this.rateLimiter = new ChatRateLimiter(clock, messagesPerMinute, burst);
+        this.window = window;
+        this.maxMessageLength = maxMessageLength;
+    }
+
+    public DispatchResult dispatch(List<NotificationOutboxMessage> messages) {
+        DispatchResult result = new DispatchResult(new ArrayList<>(), new ArrayList<>());
+        if (messages.isEmpty()) {
+            return result;
+        }
+        Long chatId = notificationBot.getAdminChatId();
+        if (chatId == null) {
+            System.out.println("The bot was not initialized.");
+            messages.forEach(message -> result.failedIds().add(message.getId()));
+            return result;
+        }
+        for (Digest digest : toDigests(messages)) {
+            if (!rateLimiter.tryAcquire(chatId)) {
+                break;
+            }
+            try {
+                notificationBot.sendMessage(chatId, digest.text());
+                result.sentIds().addAll(digest.messageIds());
+            } catch (NotificationException e) {
+                System.out.println(e.getMessage());
+                result.failedIds().addAll(digest.messageIds());
+            }
+        }
+        return result;
+    }
+
+    private List<Digest> toDigests(List<NotificationOutboxMessage> messages) {
+        Map<NotificationType, List<NotificationOutboxMessage>> messagesByType =
+                new LinkedHashMap<>();
+        for (NotificationOutboxMessage message : messages) {
+            messagesByType.computeIfAbsent(message.getType(), type -> new ArrayList<>())
+                    .add(message);
+        }
+        List<Digest> digests = new ArrayList<>();
+        messagesByType.forEach((type, typeMessages) -> digests.addAll(
+                toDigests(type, typeMessages)));
+        return digests;
+    }
+
+    private List<Digest> toDigests(NotificationType type,
+                                   List<NotificationOutboxMessage> messages) {
+        if (messages.size() == 1) {
+            NotificationOutboxMessage message = messages.get(0);
+            return List.of(new Digest(message.getMessage(), List.of(message.getId())));
+        }
+        List<Digest> digests = new ArrayList<>();
+        StringBuilder text = new StringBuilder(String.format(DIGEST_HEADER,
+                messages.size(), type.getDigestLabel(), window.toSeconds()));
+        List<Long> messageIds = new ArrayList<>();
+        for (NotificationOutboxMessage message : messages) {
+            if (!text.isEmpty() && text.length() + MESSAGE_SEPARATOR.length()
+                    + message.getMessage().length() > maxMessageLength) {
+                digests.add(new Digest(text.toString(), messageIds));
+                text.setLength(0);
+                messageIds = new ArrayList<>();
+            }
+            if (!text.isEmpty()) {
+                text.append(MESSAGE_SEPARATOR);
+            }
+            text.append(message.getMessage());
+            messageIds.add(message.getId());
+        }
+        digests.add(new Digest(text.toString(), messageIds));
+        return digests;
+    }
+
+    public record DispatchResult(List<Long> sentIds, List<Long> failedIds) {
+    }
+
+    private record Digest(String text, List<Long> messageIds) {
+    }
+}
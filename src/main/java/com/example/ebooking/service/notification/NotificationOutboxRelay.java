@@ -0,0 +1,82 @@
+package com.example.ebooking.service.notification;
+
+import com.example.ebooking.model.NotificationOutboxMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the notification outbox. Each run claims a batch of due messages through
+ * {@link NotificationOutboxStore}, hands them to the digest dispatcher with no
+ * transaction open and records the outcome in a second, short transaction. Messages are
+ * marked sent only after Telegram accepted them, so a crash before the outcome is
+ * recorded delivers them again once their claim lease runs out (at-least-once). Failed
+ * messages are retried with exponential backoff until they run out of attempts.
+ *
+ * <p>The outbox table is the notification queue: a burst of bookings adds rows, not
+ * threads, and each run sends at most one batch. The time from enqueue to delivery is
+ * recorded as {@code notification.outbox.delivery.latency}.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationOutboxRelay {
+    private final NotificationOutboxStore outboxStore;
+    private final NotificationDigestDispatcher digestDispatcher;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${notification.outbox.retention}")
+    private Duration retention;
+
+    @Value("${notification.outbox.failed-retention}")
+    private Duration failedRetention;
+
+    public int relay() {
+        List<NotificationOutboxMessage> messages =
+                outboxStore.claimDue(LocalDateTime.now(clock), batchSize);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        NotificationDigestDispatcher.DispatchResult result =
+                digestDispatcher.dispatch(messages);
+        LocalDateTime sentAt = LocalDateTime.now(clock);
+        outboxStore.recordOutcome(messages, result, sentAt);
+        recordDeliveryLatency(messages, result, sentAt);
+        return result.sentIds().size();
+    }
+
+    /**
+     * Deletes sent messages after {@code notification.outbox.retention} and messages that
+     * ran out of attempts once they are older than
+     * {@code notification.outbox.failed-retention}, which leaves time to look into them.
+     */
+    public int purge() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return outboxStore.deleteSentBefore(now.minus(retention))
+                + outboxStore.deleteFailedBefore(now.minus(failedRetention));
+    }
+
+    private void recordDeliveryLatency(List<NotificationOutboxMessage> messages,
+                                       NotificationDigestDispatcher.DispatchResult result,
+                                       LocalDateTime sentAt) {
+        Timer latency = Timer.builder("notification.outbox.delivery.latency")
+                .description("Time from writing a notification to the outbox to its delivery")
+                .register(meterRegistry);
+        Set<Long> sentIds = new HashSet<>(result.sentIds());
+        messages.stream()
+                .filter(message -> sentIds.contains(message.getId()))
+                .forEach(message -> latency.record(
+                        Duration.between(message.getCreatedAt(), sentAt)));
+    }
+}
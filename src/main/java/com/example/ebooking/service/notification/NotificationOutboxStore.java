@@ -0,0 +1,96 @@
+package com.example.ebooking.service.notification;
+
+import com.example.ebooking.model.NotificationOutboxMessage;
+import com.example.ebooking.repository.notification.NotificationOutboxRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transactional steps of the outbox relay. A batch is claimed by pushing its
+ * {@code next_attempt_at} past a short lease and committing, so no row lock or
+ * connection is held while the messages are sent. The outcome is recorded in a second
+ * transaction. If the relay dies in between, the lease runs out and the batch is sent
+ * again by a later run (at-least-once).
+ */
+@Component
+@Transactional
+@RequiredArgsConstructor
+public class NotificationOutboxStore {
+    private final NotificationOutboxRepository outboxRepository;
+
+    @Value("${notification.outbox.claim-lease}")
+    private Duration claimLease;
+
+    @Value("${notification.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.retry-backoff}")
+    private Duration retryBackoff;
+
+    public List<NotificationOutboxMessage> claimDue(LocalDateTime now, int batchSize) {
+        List<NotificationOutboxMessage> messages =
+                outboxRepository.findDueForUpdate(now, batchSize);
+        LocalDateTime leaseUntil = now.plus(claimLease);
+        messages.forEach(message -> message.setNextAttemptAt(leaseUntil));
+        return messages;
+    }
+
+    /**
+     * Marks sent messages and reschedules the rest: failed ones with exponential backoff
+     * until they run out of attempts, and the ones the dispatcher did not get to (rate
+     * limited) for the next run without using up an attempt.
+     */
+    public void recordOutcome(List<NotificationOutboxMessage> claimed,
+                              NotificationDigestDispatcher.DispatchResult result,
+                              LocalDateTime now) {
+        if (!result.sentIds().isEmpty()) {
+            outboxRepository.markSent(result.sentIds(), now);
+        }
+        Set<Long> sentIds = new HashSet<>(result.sentIds());
+        List<Long> unsentIds = claimed.stream()
+                .map(NotificationOutboxMessage::getId)
+                .filter(id -> !sentIds.contains(id))
+                .toList();
+        if (unsentIds.isEmpty()) {
+            return;
+        }
+        Set<Long> failedIds = new HashSet<>(result.failedIds());
+        for (NotificationOutboxMessage message : outboxRepository.findAllById(unsentIds)) {
+            if (failedIds.contains(message.getId())) {
+                scheduleRetry(message, now);
+            } else {
+                message.setNextAttemptAt(now);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return outboxRepository.countByStatus(NotificationOutboxMessage.Status.PENDING);
+    }
+
+    public int deleteSentBefore(LocalDateTime before) {
+        return outboxRepository.deleteSentBefore(before);
+    }
+
+    public int deleteFailedBefore(LocalDateTime before) {
+        return outboxRepository.deleteFailedBefore(before);
+    }
+
+    private void scheduleRetry(NotificationOutboxMessage message, LocalDateTime now) {
+        message.setAttempts(message.getAttempts() + 1);
+        if (message.getAttempts() >= maxAttempts) {
+            message.setStatus(NotificationOutboxMessage.Status.FAILED);
+            return;
+        }
+        message.setNextAttemptAt(now.plus(
+                retryBackoff.multipliedBy(1L << (message.getAttempts() - 1))));
+    }
+}
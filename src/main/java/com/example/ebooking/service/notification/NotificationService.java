@@ -14,9 +14,13 @@ public interface NotificationService {
 
     void sendBookingCanceledMessage(User user, Booking booking);
 
+    void sendBookingStatusUpdateMessage(Booking.Status status, List<Long> bookingIds);
+
     void sendAccommodationCreateMessage(Accommodation accommodation);
 
     void sendAccommodationReleaseMessage(List<Long> accommodationIds);
 
     void sendPaymentSuccessMessage(Payment payment);
+
+    void sendPaymentRefundRequiredMessage(Payment payment);
 }
@@ -19,6 +19,12 @@ public class NotificationTemplates {
                     + "           id:  %s%n"
                     + "           name: %s";
 
+    public static final String BOOKING_STATUS_UPDATED_TEMPLATE =
+            "Type notification: #BOOKING_STATUS_UPDATED%n"
+                    + "Status: %s%n"
+                    + "Bookings updated: %d%n"
+                    + "Booking ids: from %d to %d";
+
     public static final String ACCOMMODATION_CREATED_MESSAGE =
             "Type notification: #ACCOMMODATION_CREATED%n"
                     + "Accommodation detail: %n"
@@ -40,6 +46,15 @@ public class NotificationTemplates {
                     + "           status: %s%n"
                     + "           amount: %s";
 
+    public static final String PAYMENT_REFUND_REQUIRED_MESSAGE =
+            "Type notification: #PAYMENT_REFUND_REQUIRED%n"
+                    + "The booking is no longer active, refund the payment!%n"
+                    + "Payment detail: %n"
+                    + "           id:  %s%n"
+                    + "           bookingId:  %s%n"
+                    + "           sessionId: %s%n"
+                    + "           amount: %s";
+
     public static final String BOOKING_DETAIL_MESSAGE =
             "Booking create with id: %s%n"
                     + "           Check in date: %s%n"
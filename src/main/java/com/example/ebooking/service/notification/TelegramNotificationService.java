@@ -1,22 +1,26 @@
 package com.example.ebooking.service.notification;
 
-import com.example.ebooking.bot.NotificationTelegramBot;
 import com.example.ebooking.model.Accommodation;
 import com.example.ebooking.model.Booking;
+import com.example.ebooking.model.NotificationOutboxMessage;
+import com.example.ebooking.model.NotificationType;
 import com.example.ebooking.model.Payment;
 import com.example.ebooking.model.User;
+import com.example.ebooking.repository.notification.NotificationOutboxRepository;
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.LongSummaryStatistics;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class TelegramNotificationService implements NotificationService {
-    private final NotificationTelegramBot telegramBot;
+    private final NotificationOutboxRepository outboxRepository;
+    private final Clock clock;
 
-    @Async
     @Override
     public void sendBookingCreateMessage(Accommodation accommodation, User user,
                                                             Booking booking) {
@@ -30,10 +34,9 @@ public class TelegramNotificationService implements NotificationService {
                 getUserName(user)
         );
 
-        telegramBot.sendNotification(message);
+        enqueue(NotificationType.BOOKING_CREATED, message);
     }
 
-    @Async
     @Override
     public void sendBookingCanceledMessage(User user,
                                             Booking booking) {
@@ -43,10 +46,23 @@ public class TelegramNotificationService implements NotificationService {
                 user.getId(),
                 getUserName(user)
         );
-        telegramBot.sendNotification(message);
+        enqueue(NotificationType.BOOKING_CANCELED, message);
+    }
+
+    @Override
+    public void sendBookingStatusUpdateMessage(Booking.Status status, List<Long> bookingIds) {
+        LongSummaryStatistics ids = bookingIds.stream()
+                .mapToLong(Long::longValue)
+                .summaryStatistics();
+        String message = String.format(
+                NotificationTemplates.BOOKING_STATUS_UPDATED_TEMPLATE,
+                status,
+                ids.getCount(),
+                ids.getMin(),
+                ids.getMax());
+        enqueue(NotificationType.BOOKING_STATUS_UPDATED, message);
     }
 
-    @Async
     @Override
     public void sendAccommodationCreateMessage(Accommodation accommodation) {
         String message = String.format(
@@ -57,10 +73,9 @@ public class TelegramNotificationService implements NotificationService {
                 accommodation.getDailyRate()
         );
 
-        telegramBot.sendNotification(message);
+        enqueue(NotificationType.ACCOMMODATION_CREATED, message);
     }
 
-    @Async
     @Override
     public void sendAccommodationReleaseMessage(List<Long> accommodationIds) {
         String message = String.format(
@@ -69,10 +84,9 @@ public class TelegramNotificationService implements NotificationService {
                         .map(String::valueOf)
                         .collect(Collectors.joining(", ")));
 
-        telegramBot.sendNotification(message);
+        enqueue(NotificationType.ACCOMMODATION_RELEASED, message);
     }
 
-    @Async
     @Override
     public void sendPaymentSuccessMessage(Payment payment) {
         String message = String.format(
@@ -82,7 +96,34 @@ public class TelegramNotificationService implements NotificationService {
                 payment.getStatus().toString(),
                 payment.getAmount()
         );
-        telegramBot.sendNotification(message);
+        enqueue(NotificationType.PAYMENT_SUCCEEDED, message);
+    }
+
+    @Override
+    public void sendPaymentRefundRequiredMessage(Payment payment) {
+        String message = String.format(
+                NotificationTemplates.PAYMENT_REFUND_REQUIRED_MESSAGE,
+                payment.getId(),
+                payment.getBooking().getId(),
+                payment.getSessionId(),
+                payment.getAmount()
+        );
+        enqueue(NotificationType.PAYMENT_REFUND_REQUIRED, message);
+    }
+
+    /**
+     * Writes the message to the outbox in the caller's transaction, so it is delivered
+     * by {@link NotificationOutboxRelay} only if that transaction commits.
+     */
+    private void enqueue(NotificationType type, String message) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        NotificationOutboxMessage outboxMessage = new NotificationOutboxMessage();
+        outboxMessage.setType(type);
+        outboxMessage.setMessage(message);
+        outboxMessage.setStatus(NotificationOutboxMessage.Status.PENDING);
+        outboxMessage.setCreatedAt(now);
+        outboxMessage.setNextAttemptAt(now);
+        outboxRepository.save(outboxMessage);
     }
 
     private String getUserName(User user) {
@@ -0,0 +1,76 @@
+package com.example.ebooking.service.pagination;
+
+import com.example.ebooking.dto.pagination.CursorPage;
+import com.example.ebooking.exception.exceptions.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Keyset pagination over ascending ids. The cursor handed to clients is the last id of
+ * the page, base64-encoded so that they treat it as opaque. The next page is then read
+ * with {@code id > :afterId ORDER BY id LIMIT :size + 1} and no count query, so every
+ * page costs the same as the first one.
+ */
+public final class Cursors {
+    public static final Long FIRST_PAGE_ID = 0L;
+    private static final String PREFIX = "id:";
+
+    private Cursors() {
+    }
+
+    public static Long decode(String after) {
+        if (after == null || after.isBlank()) {
+            return FIRST_PAGE_ID;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(after),
+                    StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Invalid cursor: " + after);
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + after);
+        }
+    }
+
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Pageable limit(int size) {
+        return PageRequest.of(0, size);
+    }
+
+    public static <E, T> CursorPage<T> toPage(Slice<E> slice,
+                                              Function<E, Long> idExtractor,
+                                              Function<List<E>, List<T>> mapper) {
+        return toPage(slice.getContent(), slice.hasNext(), idExtractor, mapper);
+    }
+
+    /**
+     * Builds a page from rows read with one extra row beyond {@code size}; the extra row
+     * only tells whether there is a next page and is not returned.
+     */
+    public static <E, T> CursorPage<T> toPage(List<E> rows, int size,
+                                              Function<E, Long> idExtractor,
+                                              Function<List<E>, List<T>> mapper) {
+        boolean hasNext = rows.size() > size;
+        return toPage(hasNext ? rows.subList(0, size) : rows, hasNext, idExtractor, mapper);
+    }
+
+    private static <E, T> CursorPage<T> toPage(List<E> rows, boolean hasNext,
+                                               Function<E, Long> idExtractor,
+                                               Function<List<E>, List<T>> mapper) {
+        String nextCursor = hasNext && !rows.isEmpty()
+                ? encode(idExtractor.apply(rows.get(rows.size() - 1)))
+                : null;
+        return new CursorPage<>(mapper.apply(rows), nextCursor);
+    }
+}
@@ -1,31 +1,29 @@
 package com.example.ebooking.service.payment;
 
 import com.example.ebooking.dto.booking.BookingResponseDto;
+import com.example.ebooking.dto.pagination.CursorPage;
 import com.example.ebooking.dto.payment.CreatePaymentSessionDto;
 import com.example.ebooking.dto.payment.PaymentResponseDto;
 import com.example.ebooking.dto.payment.PaymentWithoutSessionDto;
-import com.stripe.exception.StripeException;
-import java.util.List;
-import org.springframework.data.domain.Pageable;
 
 public interface PaymentService {
-    List<PaymentResponseDto> getPaymentsForUser(Long userId,
-                                                Pageable pageable);
+    CursorPage<PaymentResponseDto> getPaymentsForUser(Long userId, String after, int size);
 
-    List<PaymentResponseDto> getPaymentsForAdmin(Pageable pageable);
+    CursorPage<PaymentResponseDto> getPaymentsForAdmin(String after, int size);
 
-    CreatePaymentSessionDto createPaymentSession(Long bookingId)
-            throws StripeException;
+    CreatePaymentSessionDto createPaymentSession(Long bookingId);
 
-    PaymentWithoutSessionDto processSuccessfulPayment(String sessionId)
-            throws StripeException;
+    /**
+     * Current state of the payment behind a checkout session. Payments are confirmed by the
+     * Stripe webhook, so right after the redirect the status may still be PENDING.
+     */
+    PaymentWithoutSessionDto getPaymentStatus(String sessionId);
 
     BookingResponseDto processCancelPayment(String sessionId);
 
-    void checkExpiredPayments() throws StripeException;
+    int checkExpiredPayments();
 
-    CreatePaymentSessionDto renewPaymentSession(Long paymentId)
-            throws StripeException;
+    CreatePaymentSessionDto renewPaymentSession(Long paymentId);
 
-    boolean existsByBookingUserIdAndStatus(Long userId);
+    boolean hasPendingPayment(Long userId);
 }
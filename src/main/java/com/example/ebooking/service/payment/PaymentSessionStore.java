@@ -0,0 +1,88 @@
+package com.example.ebooking.service.payment;
+
+import com.example.ebooking.dto.payment.CreatePaymentSessionDto;
+import com.example.ebooking.exception.exceptions.EntityNotFoundException;
+import com.example.ebooking.mapper.PaymentMapper;
+import com.example.ebooking.model.Booking;
+import com.example.ebooking.model.Payment;
+import com.example.ebooking.repository.booking.BookingRepository;
+import com.example.ebooking.repository.payment.PaymentRepository;
+import com.example.ebooking.service.payment.gateway.PaymentGateway;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Database steps of checkout session creation. {@link StripePaymentService} calls the
+ * payment gateway between them, so no transaction or pooled connection is held while
+ * the provider answers.
+ */
+@Component
+@Transactional
+@RequiredArgsConstructor
+public class PaymentSessionStore {
+    private final PaymentRepository paymentRepository;
+    private final BookingRepository bookingRepository;
+    private final PaymentMapper paymentMapper;
+    private final Clock clock;
+
+    @Value("${payment.session.reuse-min-validity}")
+    private Duration reuseMinValidity;
+
+    /**
+     * Loads the booking and prices it. A repeated checkout click gets the session it
+     * already has, as long as the amount is unchanged and the session stays open long
+     * enough to pay, instead of a new provider call and a new payments row.
+     */
+    @Transactional(readOnly = true)
+    public CheckoutPlan prepare(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new EntityNotFoundException("Payment not found by id: "
+                        + bookingId));
+
+        BigDecimal totalAmount = calculateTotalAmount(booking);
+
+        long validAfter = clock.instant().plus(reuseMinValidity).getEpochSecond();
+        CreatePaymentSessionDto liveSession = paymentRepository.findReusableSession(bookingId,
+                        totalAmount, Payment.PaymentStatus.PENDING, validAfter, Limit.of(1))
+                .map(paymentMapper::toPaymentResponseDto)
+                .orElse(null);
+        return new CheckoutPlan(booking, totalAmount, liveSession);
+    }
+
+    public CreatePaymentSessionDto save(CheckoutPlan plan,
+                                        PaymentGateway.CheckoutSession session) {
+        Payment payment = new Payment();
+        payment.setBooking(plan.booking());
+        payment.setUser(plan.booking().getUser());
+        payment.setSessionId(session.id());
+        payment.setSessionUrl(session.url());
+        payment.setExpiredTime(session.expiresAt());
+        payment.setAmount(plan.amount());
+        payment.setStatus(Payment.PaymentStatus.PENDING);
+
+        return paymentMapper.toPaymentResponseDto(paymentRepository.save(payment));
+    }
+
+    private BigDecimal calculateTotalAmount(Booking booking) {
+        long days = ChronoUnit.DAYS.between(booking.getCheckInDate().toLocalDate(),
+                booking.getCheckOutDate().toLocalDate());
+        BigDecimal size = booking.getAccommodation().getDailyRate();
+        return size.multiply(BigDecimal.valueOf(days));
+    }
+
+    /**
+     * What the checkout needs from the database: the booking, its amount and, if there is
+     * one, the live session to hand out again.
+     */
+    public record CheckoutPlan(Booking booking,
+                               BigDecimal amount,
+                               CreatePaymentSessionDto liveSession) {
+    }
+}
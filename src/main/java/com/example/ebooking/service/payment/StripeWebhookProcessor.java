@@ -0,0 +1,155 @@
+package com.example.ebooking.service.payment;
+
+import com.example.ebooking.model.Booking;
+import com.example.ebooking.model.Payment;
+import com.example.ebooking.model.StripeWebhookEvent;
+import com.example.ebooking.repository.booking.BookingRepository;
+import com.example.ebooking.repository.payment.PaymentRepository;
+import com.example.ebooking.repository.payment.StripeWebhookEventRepository;
+import com.example.ebooking.service.inventory.AccommodationInventoryService;
+import com.example.ebooking.service.notification.NotificationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Applies stored Stripe events to payments and bookings. Each run locks a batch of
+ * pending inbox rows, collects the checkout session ids per outcome and updates payments
+ * and bookings with one statement per outcome. Status filters on the updates make
+ * redelivered or reordered events harmless, and events that cannot be parsed are marked
+ * failed with the reason on the row, so that they do not block the inbox.
+ */
+@Component
+@Transactional
+@RequiredArgsConstructor
+public class StripeWebhookProcessor {
+    private static final String PAID_PAYMENT_STATUS = "paid";
+
+    private final StripeWebhookEventRepository eventRepository;
+    private final PaymentRepository paymentRepository;
+    private final BookingRepository bookingRepository;
+    private final AccommodationInventoryService inventoryService;
+    private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    @Value("${stripe.webhook.batch-size}")
+    private int batchSize;
+
+    public int process() {
+        List<StripeWebhookEvent> events = eventRepository.findPendingForUpdate(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        final LocalDateTime now = LocalDateTime.now(clock);
+        Set<String> paidSessionIds = new HashSet<>();
+        Set<String> expiredSessionIds = new HashSet<>();
+        List<Long> processedIds = new ArrayList<>();
+        for (StripeWebhookEvent event : events) {
+            JsonNode session;
+            try {
+                session = objectMapper.readTree(event.getPayload()).path("data").path("object");
+            } catch (JsonProcessingException e) {
+                eventRepository.markFailed(event.getId(),
+                        "Can't parse Stripe event: " + e.getOriginalMessage(), now);
+                continue;
+            }
+            if (!session.hasNonNull("id")) {
+                eventRepository.markFailed(event.getId(),
+                        "Stripe event has no checkout session id", now);
+                continue;
+            }
+            String sessionId = session.path("id").asText();
+            switch (event.getType()) {
+                case StripeWebhookService.CHECKOUT_SESSION_COMPLETED -> {
+                    if (PAID_PAYMENT_STATUS.equals(session.path("payment_status").asText())) {
+                        paidSessionIds.add(sessionId);
+                    }
+                }
+                case StripeWebhookService.CHECKOUT_SESSION_ASYNC_PAYMENT_SUCCEEDED ->
+                        paidSessionIds.add(sessionId);
+                case StripeWebhookService.CHECKOUT_SESSION_EXPIRED ->
+                        expiredSessionIds.add(sessionId);
+                default -> {
+                }
+            }
+            processedIds.add(event.getId());
+        }
+
+        confirmPayments(paidSessionIds);
+        if (!expiredSessionIds.isEmpty()) {
+            paymentRepository.updateStatusBySessionIds(expiredSessionIds,
+                    Payment.PaymentStatus.PENDING, Payment.PaymentStatus.EXPIRED);
+        }
+
+        if (!processedIds.isEmpty()) {
+            eventRepository.markProcessed(processedIds, StripeWebhookEvent.Status.PROCESSED,
+                    now);
+        }
+        return processedIds.size();
+    }
+
+    /**
+     * Confirms the bookings of paid sessions. The bookings are locked first, so their
+     * status cannot change under the confirmation. A booking that already expired is
+     * confirmed only if its nights are still free, and takes them back in the inventory
+     * ledger. A canceled or deleted booking, or an expired one whose nights were sold
+     * again, is not brought back: its payment is recorded as paid and an alert is sent so
+     * that it can be refunded.
+     */
+    private void confirmPayments(Set<String> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return;
+        }
+        List<Payment> payments = paymentRepository.findBySessionIdInAndStatusNot(sessionIds,
+                Payment.PaymentStatus.PAID);
+        if (payments.isEmpty()) {
+            return;
+        }
+
+        Set<Long> confirmedIds = new HashSet<>();
+        Set<Long> expiredIds = new HashSet<>();
+        for (BookingRepository.BookingStatusView booking : bookingRepository
+                .lockStatusesForUpdate(payments.stream()
+                        .map(payment -> payment.getBooking().getId())
+                        .collect(Collectors.toSet()))) {
+            Booking.Status status = Booking.Status.valueOf(booking.getStatus());
+            if (status == Booking.Status.EXPIRED) {
+                expiredIds.add(booking.getId());
+            } else if (status != Booking.Status.CANCELED) {
+                confirmedIds.add(booking.getId());
+            }
+        }
+        if (!expiredIds.isEmpty()) {
+            confirmedIds.addAll(inventoryService.reserveIfAvailable(
+                    bookingRepository.findAllById(expiredIds)));
+        }
+        if (!confirmedIds.isEmpty()) {
+            bookingRepository.updateStatusForBookings(confirmedIds, Booking.Status.CONFIRMED);
+        }
+
+        paymentRepository.updateStatusForPayments(
+                payments.stream().map(Payment::getId).collect(Collectors.toSet()),
+                Payment.PaymentStatus.PAID);
+        payments.forEach(payment -> {
+            payment.setStatus(Payment.PaymentStatus.PAID);
+            if (confirmedIds.contains(payment.getBooking().getId())) {
+                notificationService.sendPaymentSuccessMessage(payment);
+            } else {
+                notificationService.sendPaymentRefundRequiredMessage(payment);
+            }
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ebooking.service.payment;
+
+import com.example.ebooking.exception.exceptions.WebhookSignatureException;
+import com.example.ebooking.repository.payment.StripeWebhookEventRepository;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.net.Webhook;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Receiving side of the Stripe webhook. It only verifies the signature and stores the raw
+ * event in the inbox, so Stripe gets its acknowledgement without waiting for payment and
+ * booking updates; {@link StripeWebhookProcessor} applies the events later.
+ */
+@Service
+@RequiredArgsConstructor
+public class StripeWebhookService {
+    public static final String CHECKOUT_SESSION_COMPLETED = "checkout.session.completed";
+    public static final String CHECKOUT_SESSION_ASYNC_PAYMENT_SUCCEEDED =
+            "checkout.session.async_payment_succeeded";
+    public static final String CHECKOUT_SESSION_EXPIRED = "checkout.session.expired";
+    public static final Set<String> HANDLED_EVENT_TYPES = Set.of(
+            CHECKOUT_SESSION_COMPLETED,
+            CHECKOUT_SESSION_ASYNC_PAYMENT_SUCCEEDED,
+            CHECKOUT_SESSION_EXPIRED);
+
+    private final StripeWebhookEventRepository eventRepository;
+    private final Clock clock;
+
+    @Value("${stripe.webhook.secret}")
+    private String webhookSecret;
+
+    /**
+     * @return true if the event was stored, false if it is of a type the application does
+     *         not handle or was already received
+     */
+    @Transactional
+    public boolean receive(String payload, String signatureHeader) {
+        Event event;
+        try {
+            event = Webhook.constructEvent(payload, signatureHeader, webhookSecret,
+                    Webhook.DEFAULT_TOLERANCE, clock);
+        } catch (SignatureVerificationException e) {
+            throw new WebhookSignatureException("Invalid Stripe webhook signature");
+        }
+
+        if (!HANDLED_EVENT_TYPES.contains(event.getType())) {
+            return false;
+        }
+        return eventRepository.insertIfAbsent(event.getId(), event.getType(), payload,
+                LocalDateTime.now(clock)) > 0;
+    }
+}
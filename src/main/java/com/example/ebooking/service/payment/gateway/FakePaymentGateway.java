@@ -0,0 +1,45 @@
+package com.example.ebooking.service.payment.gateway;
+
+import com.example.ebooking.exception.exceptions.PaymentGatewayException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process stand-in for Stripe, enabled with {@code payment.gateway.type=fake}. It
+ * sleeps for {@code payment.gateway.fake-latency} to imitate the provider round trip and
+ * returns sessions that expire after 24 hours, like Stripe Checkout does by default.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway.type", havingValue = "fake")
+public class FakePaymentGateway implements PaymentGateway {
+    public static final String CHECKOUT_URL = "https://checkout.fake.local/";
+    private static final Duration SESSION_LIFETIME = Duration.ofHours(24);
+
+    private final Clock clock;
+    private final Duration latency;
+
+    public FakePaymentGateway(Clock clock,
+                              @Value("${payment.gateway.fake-latency}") Duration latency) {
+        this.clock = clock;
+        this.latency = latency;
+    }
+
+    @Override
+    public CheckoutSession createCheckoutSession(CheckoutRequest request) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PaymentGatewayException("Payment session creation was interrupted");
+            }
+        }
+        String id = "cs_fake_" + UUID.randomUUID();
+        return new CheckoutSession(id, CHECKOUT_URL + id,
+                clock.instant().plus(SESSION_LIFETIME).getEpochSecond());
+    }
+}
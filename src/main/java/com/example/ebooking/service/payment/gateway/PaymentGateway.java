@@ -0,0 +1,20 @@
+package com.example.ebooking.service.payment.gateway;
+
+import java.math.BigDecimal;
+
+/**
+ * Creates hosted checkout sessions. {@link StripePaymentGateway} talks to Stripe, and
+ * {@link FakePaymentGateway} answers in-process so the payment flow can run offline.
+ */
+public interface PaymentGateway {
+    CheckoutSession createCheckoutSession(CheckoutRequest request);
+
+    record CheckoutRequest(BigDecimal amount,
+                           String currency,
+                           String successUrl,
+                           String cancelUrl) {
+    }
+
+    record CheckoutSession(String id, String url, Long expiresAt) {
+    }
+}
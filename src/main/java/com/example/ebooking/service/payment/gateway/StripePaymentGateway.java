@@ -0,0 +1,119 @@
+package com.example.ebooking.service.payment.gateway;
+
+import com.example.ebooking.exception.exceptions.PaymentGatewayException;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.checkout.SessionCreateParams;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stripe Checkout behind connect/read timeouts and a circuit breaker, so a slow or failing
+ * Stripe answers quickly with {@link PaymentGatewayException} instead of holding request
+ * threads for the length of the HTTP client defaults. Every call reports its outcome to
+ * the breaker, including unexpected runtime errors, so a trial call cannot leave it
+ * half-open.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway.type", havingValue = "stripe",
+        matchIfMissing = true)
+public class StripePaymentGateway implements PaymentGateway {
+    public static final long DEFAULT_QUANTITY = 1L;
+    public static final BigDecimal CENTS_AMOUNT = BigDecimal.valueOf(100);
+    public static final String PRODUCT_NAME = "Booking Payment";
+
+    private final RequestOptions requestOptions;
+    private final CircuitBreaker circuitBreaker;
+
+    public StripePaymentGateway(
+            Clock clock,
+            @Value("${stripe.secretKey}") String secretKey,
+            @Value("${payment.gateway.connect-timeout}") Duration connectTimeout,
+            @Value("${payment.gateway.read-timeout}") Duration readTimeout,
+            @Value("${payment.gateway.circuit-breaker.failure-threshold}") int threshold,
+            @Value("${payment.gateway.circuit-breaker.open-duration}") Duration openDuration) {
+        this.requestOptions = RequestOptions.builder()
+                .setApiKey(secretKey)
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setReadTimeout((int) readTimeout.toMillis())
+                .setMaxNetworkRetries(0)
+                .build();
+        this.circuitBreaker = new CircuitBreaker(clock, threshold, openDuration);
+    }
+
+    @Override
+    public CheckoutSession createCheckoutSession(CheckoutRequest request) {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new PaymentGatewayException("Payment provider is unavailable, "
+                    + "try again later");
+        }
+        Session session;
+        boolean providerFailed = true;
+        try {
+            session = create(createSessionParams(request), requestOptions);
+            providerFailed = false;
+        } catch (StripeException e) {
+            providerFailed = isProviderFailure(e);
+            throw new PaymentGatewayException("Can't create payment session: "
+                    + e.getMessage());
+        } finally {
+            if (providerFailed) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+        }
+        return new CheckoutSession(session.getId(), session.getUrl(), session.getExpiresAt());
+    }
+
+    /**
+     * Only errors that say Stripe is unreachable or unhealthy count against the circuit:
+     * connection failures and timeouts, rate limiting and 5xx answers. A rejected request
+     * or a declined card is a normal answer and leaves the circuit closed.
+     */
+    private boolean isProviderFailure(StripeException e) {
+        if (e instanceof ApiConnectionException || e instanceof RateLimitException) {
+            return true;
+        }
+        Integer statusCode = e.getStatusCode();
+        return statusCode == null || statusCode >= 500;
+    }
+
+    protected Session create(SessionCreateParams params, RequestOptions options)
+            throws StripeException {
+        return Session.create(params, options);
+    }
+
+    private SessionCreateParams.LineItem.PriceData createPriceData(CheckoutRequest request) {
+        return SessionCreateParams.LineItem.PriceData.builder()
+                .setCurrency(request.currency())
+                .setUnitAmount(request.amount().multiply(CENTS_AMOUNT).longValue())
+                .setProductData(SessionCreateParams.LineItem.PriceData.ProductData.builder()
+                        .setName(PRODUCT_NAME)
+                        .build())
+                .build();
+    }
+
+    private SessionCreateParams.LineItem createLineItem(CheckoutRequest request) {
+        return SessionCreateParams.LineItem.builder()
+                .setPriceData(createPriceData(request))
+                .setQuantity(DEFAULT_QUANTITY)
+                .build();
+    }
+
+    private SessionCreateParams createSessionParams(CheckoutRequest request) {
+        return SessionCreateParams.builder()
+                .setMode(SessionCreateParams.Mode.PAYMENT)
+                .setCancelUrl(request.cancelUrl())
+                .setSuccessUrl(request.successUrl())
+                .addLineItem(createLineItem(request))
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.ebooking.service.scheduling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a scheduled job on one node of the cluster at a time. The node that gets the
+ * Postgres advisory lock for the job name runs it; the others skip this run. The lock
+ * is a session lock held on a dedicated connection, so the job itself is free to use
+ * as many transactions as it needs, and it is released by Postgres if that connection
+ * dies. Each run records its duration and the number of rows it affected.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClusterJobRunner {
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext(?))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext(?))";
+    private static final String JOB_TAG = "job";
+    private static final String OUTCOME_TAG = "outcome";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public boolean run(String jobName, IntSupplier job) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>)
+                connection -> {
+                    if (!queryBoolean(connection, TRY_LOCK_SQL, jobName)) {
+                        skipped(jobName).increment();
+                        return false;
+                    }
+                    try {
+                        runTimed(jobName, job);
+                        return true;
+                    } finally {
+                        queryBoolean(connection, UNLOCK_SQL, jobName);
+                    }
+                }));
+    }
+
+    private void runTimed(String jobName, IntSupplier job) {
+        long startedAt = System.nanoTime();
+        String outcome = "failure";
+        try {
+            int rows = job.getAsInt();
+            rows(jobName).record(rows);
+            outcome = "success";
+        } finally {
+            Timer.builder("scheduled.job.duration")
+                    .description("Duration of a cluster-wide scheduled job run")
+                    .tag(JOB_TAG, jobName)
+                    .tag(OUTCOME_TAG, outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt,
+                            TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private DistributionSummary rows(String jobName) {
+        return DistributionSummary.builder("scheduled.job.rows")
+                .description("Rows affected by a scheduled job run")
+                .tag(JOB_TAG, jobName)
+                .register(meterRegistry);
+    }
+
+    private Counter skipped(String jobName) {
+        return Counter.builder("scheduled.job.skipped")
+                .description("Runs skipped because another node held the job lock")
+                .tag(JOB_TAG, jobName)
+                .register(meterRegistry);
+    }
+
+    private boolean queryBoolean(Connection connection, String sql, String jobName)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, jobName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.ebooking.service.scheduling;
+
+import com.example.ebooking.service.booking.BookingService;
+import com.example.ebooking.service.idempotency.IdempotencyService;
+import com.example.ebooking.service.inventory.AccommodationInventoryService;
+import com.example.ebooking.service.notification.NotificationOutboxRelay;
+import com.example.ebooking.service.payment.PaymentService;
+import com.example.ebooking.service.payment.StripeWebhookProcessor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * All scheduled jobs of the application. Every trigger fires on each node, and
+ * {@link ClusterJobRunner} lets only one of them do the work.
+ */
+@Component
+@RequiredArgsConstructor
+public class ScheduledJobs {
+    public static final String BOOKING_EXPIRY_JOB = "booking-expiry";
+    public static final String PAYMENT_EXPIRY_JOB = "payment-expiry";
+    public static final String INVENTORY_REBUILD_JOB = "inventory-rebuild";
+    public static final String OUTBOX_RELAY_JOB = "notification-outbox-relay";
+    public static final String OUTBOX_PURGE_JOB = "notification-outbox-purge";
+    public static final String STRIPE_WEBHOOK_JOB = "stripe-webhook-processing";
+    public static final String IDEMPOTENCY_PURGE_JOB = "idempotency-key-purge";
+
+    private final ClusterJobRunner jobRunner;
+    private final BookingService bookingService;
+    private final PaymentService paymentService;
+    private final AccommodationInventoryService inventoryService;
+    private final NotificationOutboxRelay outboxRelay;
+    private final StripeWebhookProcessor webhookProcessor;
+    private final IdempotencyService idempotencyService;
+
+    @Value("${booking.expiry.batch-size}")
+    private int bookingExpiryBatchSize;
+
+    /**
+     * Expires finished bookings batch by batch. Every batch runs in its own transaction,
+     * so locks are held briefly and progress is kept even if a later batch fails.
+     */
+    @Scheduled(cron = "${booking.expiry.cron}")
+    public void expireFinishedBookings() {
+        jobRunner.run(BOOKING_EXPIRY_JOB, () -> {
+            int total = 0;
+            int expired;
+            do {
+                expired = bookingService.expireFinishedBookings(bookingExpiryBatchSize);
+                total += expired;
+            } while (expired == bookingExpiryBatchSize);
+            return total;
+        });
+    }
+
+    @Scheduled(cron = "0 1 * * * *")
+    public void expirePayments() {
+        jobRunner.run(PAYMENT_EXPIRY_JOB, paymentService::checkExpiredPayments);
+    }
+
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void rebuildInventory() {
+        jobRunner.run(INVENTORY_REBUILD_JOB, inventoryService::rebuild);
+    }
+
+    /**
+     * Running the relay on a single node also keeps the per-chat rate limit, which is
+     * tracked in memory, valid for the whole cluster.
+     */
+    @Scheduled(fixedDelayString = "${notification.digest.window}")
+    public void relayNotifications() {
+        jobRunner.run(OUTBOX_RELAY_JOB, outboxRelay::relay);
+    }
+
+    @Scheduled(cron = "${notification.outbox.purge-cron}")
+    public void purgeNotifications() {
+        jobRunner.run(OUTBOX_PURGE_JOB, outboxRelay::purge);
+    }
+
+    @Scheduled(fixedDelayString = "${stripe.webhook.poll-interval}")
+    public void processStripeEvents() {
+        jobRunner.run(STRIPE_WEBHOOK_JOB, webhookProcessor::process);
+    }
+
+    @Scheduled(cron = "${idempotency.purge-cron}")
+    public void purgeIdempotencyKeys() {
+        jobRunner.run(IDEMPOTENCY_PURGE_JOB, idempotencyService::purgeExpired);
+    }
+}
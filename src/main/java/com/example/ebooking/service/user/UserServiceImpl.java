@@ -1,5 +1,6 @@
 package com.example.ebooking.service.user;
 
+import com.example.ebooking.config.CacheConfig;
 import com.example.ebooking.dto.user.UserRegistrationRequestDto;
 import com.example.ebooking.dto.user.UserResponseDto;
 import com.example.ebooking.dto.user.UserUpdatePasswordDto;
@@ -15,6 +16,7 @@ import com.example.ebooking.repository.user.UserRepository;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -44,6 +46,7 @@ public class UserServiceImpl implements UserService {
         return userMapper.toDto(userRepository.save(user));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS_CACHE, key = "#result.email")
     @Override
     public UserResponseDto updateRole(Long id, UserUpdateRoleDto updateRoleDto) {
         User user = userRepository.findById(id).orElseThrow(
@@ -65,6 +68,7 @@ public class UserServiceImpl implements UserService {
         return userMapper.toDto(userFromDB);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS_CACHE, key = "#user.email")
     @Override
     public UserResponseDto updateUser(User user, UserUpdateRequestDto requestDto) {
         User userFromDB = userRepository.findById(user.getId()).orElseThrow(
@@ -74,6 +78,7 @@ public class UserServiceImpl implements UserService {
         return userMapper.toDto(userRepository.save(userFromDB));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS_CACHE, key = "#user.email")
     @Override
     public String updatePasswordByUser(User user, UserUpdatePasswordDto updatePasswordDto) {
         User userFromDB = userRepository.findById(user.getId()).orElseThrow(
@@ -0,0 +1,15 @@
+package com.example.ebooking.validation.searchdates;
+
+import com.example.ebooking.dto.accommodation.AccommodationSearchParameters;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class SearchDatesValidator implements ConstraintValidator<ValidSearchDates,
+        AccommodationSearchParameters> {
+
+    @Override
+    public boolean isValid(AccommodationSearchParameters parameters,
+                           ConstraintValidatorContext context) {
+        return (parameters.checkInDate() == null) == (parameters.checkOutDate() == null);
+    }
+}
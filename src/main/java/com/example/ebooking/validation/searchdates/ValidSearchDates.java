@@ -0,0 +1,18 @@
+package com.example.ebooking.validation.searchdates;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Constraint(validatedBy = SearchDatesValidator.class)
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidSearchDates {
+    String message() default "Both checkInDate and checkOutDate are required "
+            + "to search by available dates.";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
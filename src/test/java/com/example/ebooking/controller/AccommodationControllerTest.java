@@ -123,6 +123,43 @@ public class AccommodationControllerTest {
         assertEquals(expected, Arrays.stream(actual).toList());
     }
 
+    @Test
+    @DisplayName("Returns accommodations matching the search parameters")
+    void search_withLocationAmenitiesAndMaxRate_returnMatchingDto() throws Exception {
+        AccommodationResponseDto expected = new AccommodationResponseDto();
+        expected.setId(2L);
+        expected.setType("CONDO");
+        expected.setLocation("Lviv, Ukraine");
+        expected.setSize("55m");
+        expected.setAmenities(new HashSet<>(Set.of("Garage", "WiFi")));
+        expected.setDailyRate(BigDecimal.valueOf(100.00).setScale(2,
+                RoundingMode.HALF_UP));
+        expected.setAvailability(1);
+
+        MvcResult result = mockMvc.perform(get("/accommodations/search")
+                        .param("location", "lviv")
+                        .param("amenitiesArray", "WiFi", "Garage")
+                        .param("maxDailyRate", "110")
+                        .param("checkInDate", "2030-01-10")
+                        .param("checkOutDate", "2030-01-12")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        AccommodationResponseDto[] actual = objectMapper.readValue(result.getResponse()
+                .getContentAsByteArray(), AccommodationResponseDto[].class);
+        assertEquals(List.of(expected), Arrays.stream(actual).toList());
+    }
+
+    @Test
+    @DisplayName("Rejects a search by available dates without the check-out date")
+    void search_withOnlyCheckInDate_returnBadRequest() throws Exception {
+        mockMvc.perform(get("/accommodations/search")
+                        .param("checkInDate", "2030-01-10")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @WithMockUser(username = "user", roles = {"USER"})
     @Test
     @DisplayName("Returns accommodation by id")
@@ -1,20 +1,25 @@
 package com.example.ebooking.repository;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.example.ebooking.exception.exceptions.EntityNotFoundException;
 import com.example.ebooking.model.Booking;
 import com.example.ebooking.repository.booking.BookingRepository;
+import jakarta.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.jdbc.Sql;
 
 @DataJpaTest
@@ -22,6 +27,8 @@ import org.springframework.test.context.jdbc.Sql;
 public class BookingRepositoryTest {
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Test
     @DisplayName("Updates status for bookings by list ids")
@@ -44,6 +51,30 @@ public class BookingRepositoryTest {
         assertEquals(bookingList.get(2).getStatus(), status);
     }
 
+    @Test
+    @DisplayName("Locks only bookings not in the new status and updates them in bulk")
+    @Sql(scripts = {
+            "classpath:scripts/repository/booking/insert-accommodation.sql",
+            "classpath:scripts/repository/booking/insert-three-booking.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:scripts/repository/booking/delete-accommodation.sql",
+            "classpath:scripts/repository/booking/delete-three-booking.sql"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void lockForStatusChange_withBookingInTargetStatus_skipIt() {
+        Booking.Status status = Booking.Status.CANCELED;
+        bookingRepository.updateStatus(2L, status);
+
+        List<Long> lockedIds = bookingRepository.lockForStatusChange(List.of(3L, 1L, 2L),
+                status.name());
+        int updated = bookingRepository.updateStatusForBookings(lockedIds, status);
+
+        assertEquals(List.of(1L, 3L), lockedIds);
+        assertEquals(2, updated);
+        assertTrue(bookingRepository.findAll().stream()
+                .allMatch(booking -> booking.getStatus() == status));
+    }
+
     @Test
     @DisplayName("Updates status for booking by booking id")
     @Sql(scripts = {"classpath:scripts/repository/booking/insert-accommodation.sql",
@@ -66,7 +97,7 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    @DisplayName("Returns a bookings with a check-out time and no status specified")
+    @DisplayName("Returns active finished bookings oldest check-out first")
     @Sql(scripts = {"classpath:scripts/repository/booking/insert-accommodation.sql",
             "classpath:scripts/repository/booking/insert-three-booking.sql"},
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -74,18 +105,17 @@ public class BookingRepositoryTest {
             "classpath:scripts/repository/booking/delete-accommodation.sql",
             "classpath:scripts/repository/booking/delete-three-booking.sql"},
             executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
-    void findByCheckOutDateAndStatusNot_withValidDateAndStatus_returnBookings() {
-        LocalDateTime date = LocalDateTime.of(2025, 2, 23, 14, 0, 0);
-        Booking.Status status = Booking.Status.CANCELED;
-        List<Booking> bookingList = bookingRepository.findByCheckOutDateAndStatusNot(date, status);
-        for (Booking booking : bookingList) {
-            assertEquals(booking.getCheckOutDate(), date);
-            assertNotEquals(booking.getStatus(), status);
-        }
+    void findFinishedActiveBookingsForUpdate_finishedBookings_returnBookingsInOrder() {
+        LocalDateTime now = LocalDateTime.of(2025, 2, 1, 0, 0, 0);
+        List<Booking> firstBatch = bookingRepository.findFinishedActiveBookingsForUpdate(now, 2);
+        List<Booking> allFinished = bookingRepository.findFinishedActiveBookingsForUpdate(now, 10);
+
+        assertEquals(List.of(3L, 2L), firstBatch.stream().map(Booking::getId).toList());
+        assertEquals(List.of(3L, 2L, 1L), allFinished.stream().map(Booking::getId).toList());
     }
 
     @Test
-    @DisplayName("Returns a bookings with a check-out time and no status specified")
+    @DisplayName("Does not return canceled or not yet finished bookings")
     @Sql(scripts = {"classpath:scripts/repository/booking/insert-accommodation.sql",
             "classpath:scripts/repository/booking/insert-three-booking-status-canceled.sql"},
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -93,10 +123,115 @@ public class BookingRepositoryTest {
             "classpath:scripts/repository/booking/delete-accommodation.sql",
             "classpath:scripts/repository/booking/delete-three-booking.sql"},
             executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
-    void findByCheckOutDateAndStatusNot_withValidDateAndStatus_returnEmptyList() {
-        LocalDateTime date = LocalDateTime.of(2025, 2, 23, 14, 0, 0);
-        Booking.Status status = Booking.Status.CANCELED;
-        List<Booking> bookingList = bookingRepository.findByCheckOutDateAndStatusNot(date, status);
+    void findFinishedActiveBookingsForUpdate_canceledOrNotFinished_returnEmptyList() {
+        List<Booking> bookingList = bookingRepository.findFinishedActiveBookingsForUpdate(
+                LocalDateTime.of(2024, 3, 1, 0, 0, 0), 10);
         assertTrue(bookingList.isEmpty());
     }
+
+    @Test
+    @DisplayName("Returns active bookings overlapping the requested dates")
+    @Sql(scripts = {"classpath:scripts/repository/booking/insert-accommodation.sql",
+            "classpath:scripts/repository/booking/insert-three-booking.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:scripts/repository/booking/delete-accommodation.sql",
+            "classpath:scripts/repository/booking/delete-three-booking.sql"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findOverlappingBookings_withOverlappingDates_returnBookings() {
+        List<Booking> bookingList = bookingRepository.findOverlappingBookings(
+                1L,
+                LocalDateTime.of(2025, 1, 27, 12, 0, 0),
+                LocalDateTime.of(2025, 1, 29, 12, 0, 0),
+                List.of(Booking.Status.PENDING, Booking.Status.CONFIRMED),
+                null);
+        assertEquals(1, bookingList.size());
+        assertEquals(1L, bookingList.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Does not return canceled or excluded bookings as overlapping")
+    @Sql(scripts = {"classpath:scripts/repository/booking/insert-accommodation.sql",
+            "classpath:scripts/repository/booking/insert-three-booking.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:scripts/repository/booking/delete-accommodation.sql",
+            "classpath:scripts/repository/booking/delete-three-booking.sql"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findOverlappingBookings_withCanceledAndExcludedBookings_returnEmptyList() {
+        List<Booking.Status> statuses = List.of(Booking.Status.PENDING,
+                Booking.Status.CONFIRMED);
+        List<Booking> canceled = bookingRepository.findOverlappingBookings(
+                1L,
+                LocalDateTime.of(2024, 2, 20, 12, 0, 0),
+                LocalDateTime.of(2024, 2, 24, 12, 0, 0),
+                statuses,
+                null);
+        List<Booking> excluded = bookingRepository.findOverlappingBookings(
+                1L,
+                LocalDateTime.of(2025, 1, 27, 12, 0, 0),
+                LocalDateTime.of(2025, 1, 29, 12, 0, 0),
+                statuses,
+                1L);
+        assertTrue(canceled.isEmpty());
+        assertTrue(excluded.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Loads a user's bookings and their user in a single statement")
+    @Sql(scripts = {"classpath:scripts/repository/booking/insert-accommodation.sql",
+            "classpath:scripts/repository/booking/insert-bookings-for-three-users.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:scripts/repository/booking/delete-accommodation.sql",
+            "classpath:scripts/repository/booking/delete-bookings-for-three-users.sql"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findByUserIdAndIdGreaterThanOrderByIdAsc_mappedFields_loadedInOneStatement() {
+        Statistics statistics = startStatistics();
+
+        List<Booking> bookings = bookingRepository
+                .findByUserIdAndIdGreaterThanOrderByIdAsc(1L, 0L, PageRequest.of(0, 10))
+                .getContent();
+        readMappedFields(bookings);
+
+        assertEquals(List.of(1L, 4L), bookings.stream().map(Booking::getId).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Loads bookings of several users with their users in a single statement")
+    @Sql(scripts = {"classpath:scripts/repository/booking/insert-accommodation.sql",
+            "classpath:scripts/repository/booking/insert-bookings-for-three-users.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:scripts/repository/booking/delete-accommodation.sql",
+            "classpath:scripts/repository/booking/delete-bookings-for-three-users.sql"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findWithUserBy_bookingsOfSeveralUsers_loadedInOneStatement() {
+        Specification<Booking> pending = (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("status"), Booking.Status.PENDING);
+        Statistics statistics = startStatistics();
+
+        List<Booking> bookings = bookingRepository.findWithUserBy(pending, 5);
+        readMappedFields(bookings);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L),
+                bookings.stream().map(Booking::getId).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics startStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    private void readMappedFields(List<Booking> bookings) {
+        bookings.forEach(booking -> {
+            assertNotNull(booking.getAccommodation().getId());
+            assertNotNull(booking.getUser().getFirstName());
+        });
+    }
 }
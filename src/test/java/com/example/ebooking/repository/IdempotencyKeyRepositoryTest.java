@@ -0,0 +1,85 @@
+package com.example.ebooking.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.example.ebooking.model.IdempotencyKey;
+import com.example.ebooking.repository.idempotency.IdempotencyKeyRepository;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.jdbc.Sql;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class IdempotencyKeyRepositoryTest {
+    private static final Long USER_ID = 1L;
+    private static final String KEY = "abandoned-key";
+    private static final String FIRST_LEASE_TOKEN = "9b3e1f4c-0d2a-4a57-8c61-1f0e7d2b6a10";
+    private static final String RETRY_LEASE_TOKEN = "5d7a0c2e-6f1b-4e38-9a4d-2c8b3e9f7a21";
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Test
+    @DisplayName("Takes over a claim that was never completed once its lease ran out")
+    @Sql(scripts = "classpath:scripts/repository/idempotency/insert-abandoned-claim.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = "classpath:scripts/repository/idempotency/delete-idempotency-keys.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void claim_abandonedClaimWithExpiredLease_takeOverKey() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 0, 2, 0);
+
+        int claimed = idempotencyKeyRepository.claim(USER_ID, KEY, "hash-of-retry", now,
+                now.plusMinutes(1), RETRY_LEASE_TOKEN);
+
+        assertEquals(1, claimed);
+        IdempotencyKey idempotencyKey = idempotencyKeyRepository
+                .findByUserIdAndKey(USER_ID, KEY).orElseThrow();
+        assertEquals("hash-of-retry", idempotencyKey.getRequestHash());
+        assertEquals(now.plusMinutes(1), idempotencyKey.getLockedUntil());
+        assertEquals(RETRY_LEASE_TOKEN, idempotencyKey.getLeaseToken());
+        assertNull(idempotencyKey.getResponse());
+    }
+
+    @Test
+    @DisplayName("Keeps a claim whose lease is still running")
+    @Sql(scripts = "classpath:scripts/repository/idempotency/insert-abandoned-claim.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = "classpath:scripts/repository/idempotency/delete-idempotency-keys.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void claim_claimWithLiveLease_returnZero() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 0, 0, 30);
+
+        int claimed = idempotencyKeyRepository.claim(USER_ID, KEY, "hash-of-retry", now,
+                now.plusMinutes(1), RETRY_LEASE_TOKEN);
+
+        assertEquals(0, claimed);
+    }
+
+    @Test
+    @DisplayName("Keeps a newer claim when a request whose lease ran out releases the key")
+    @Sql(scripts = "classpath:scripts/repository/idempotency/insert-abandoned-claim.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = "classpath:scripts/repository/idempotency/delete-idempotency-keys.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void release_afterLeaseTakenOver_keepNewerClaim() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 0, 2, 0);
+        idempotencyKeyRepository.claim(USER_ID, KEY, "hash-of-retry", now, now.plusMinutes(1),
+                RETRY_LEASE_TOKEN);
+
+        int released = idempotencyKeyRepository.release(USER_ID, KEY, FIRST_LEASE_TOKEN);
+        int completed = idempotencyKeyRepository.complete(USER_ID, KEY, FIRST_LEASE_TOKEN,
+                "{}", now.plusDays(1));
+
+        assertEquals(0, released);
+        assertEquals(0, completed);
+        IdempotencyKey idempotencyKey = idempotencyKeyRepository
+                .findByUserIdAndKey(USER_ID, KEY).orElseThrow();
+        assertEquals(RETRY_LEASE_TOKEN, idempotencyKey.getLeaseToken());
+        assertNull(idempotencyKey.getResponse());
+    }
+}
@@ -4,9 +4,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.example.ebooking.dto.payment.PaymentSummaryDto;
 import com.example.ebooking.exception.exceptions.EntityNotFoundException;
 import com.example.ebooking.model.Payment;
 import com.example.ebooking.repository.payment.PaymentRepository;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +16,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.jdbc.Sql;
 
 @DataJpaTest
@@ -54,10 +59,10 @@ public class PaymentRepositoryTest {
             "classpath:scripts/repository/payment/delete-booking.sql",
             "classpath:scripts/repository/payment/delete-payment.sql"},
             executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
-    void existsByBookingUserIdAndStatus_withValidUserIdAndStatus_returnTrue() {
+    void existsByUserIdAndStatus_withValidUserIdAndStatus_returnTrue() {
         Long userId = 1L;
         Payment.PaymentStatus status = Payment.PaymentStatus.PENDING;
-        boolean isExist = paymentRepository.existsByBookingUserIdAndStatus(userId, status);
+        boolean isExist = paymentRepository.existsByUserIdAndStatus(userId, status);
         assertTrue(isExist);
     }
 
@@ -71,10 +76,10 @@ public class PaymentRepositoryTest {
             "classpath:scripts/repository/payment/delete-booking.sql",
             "classpath:scripts/repository/payment/delete-payment.sql"},
             executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
-    void existsByBookingUserIdAndStatus_withValidUserIdAndStatus_returnFalse() {
+    void existsByUserIdAndStatus_withValidUserIdAndStatus_returnFalse() {
         Long userId = 1L;
         Payment.PaymentStatus status = Payment.PaymentStatus.EXPIRED;
-        boolean isExist = paymentRepository.existsByBookingUserIdAndStatus(userId, status);
+        boolean isExist = paymentRepository.existsByUserIdAndStatus(userId, status);
         assertFalse(isExist);
     }
 
@@ -100,4 +105,52 @@ public class PaymentRepositoryTest {
 
         assertTrue(beforeSize < afterSize);
     }
+
+    @Test
+    @DisplayName("Returns the user's payments as summaries in id order")
+    @Sql(scripts = {"classpath:scripts/repository/payment/insert-accommodation.sql",
+            "classpath:scripts/repository/payment/insert-booking.sql",
+            "classpath:scripts/repository/payment/insert-two-payment.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {"classpath:scripts/repository/payment/delete-accommodation.sql",
+            "classpath:scripts/repository/payment/delete-booking.sql",
+            "classpath:scripts/repository/payment/delete-payment.sql"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findSummariesByUserId_withPayments_returnSummariesAfterCursor() {
+        Slice<PaymentSummaryDto> firstPage = paymentRepository.findSummariesByUserId(1L, 0L,
+                PageRequest.of(0, 1));
+        Slice<PaymentSummaryDto> secondPage = paymentRepository.findSummariesByUserId(1L,
+                firstPage.getContent().get(0).id(), PageRequest.of(0, 1));
+
+        assertEquals(new PaymentSummaryDto(1L, 1L, "2334", "kdfksdmfksflks",
+                new BigDecimal("240.00"), Payment.PaymentStatus.PENDING),
+                firstPage.getContent().get(0));
+        assertTrue(firstPage.hasNext());
+        assertEquals(2L, secondPage.getContent().get(0).id());
+        assertFalse(secondPage.hasNext());
+    }
+
+    @Test
+    @DisplayName("Finds a pending session for the same amount only while it stays valid")
+    @Sql(scripts = {"classpath:scripts/repository/payment/insert-accommodation.sql",
+            "classpath:scripts/repository/payment/insert-booking.sql",
+            "classpath:scripts/repository/payment/insert-two-payment.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {"classpath:scripts/repository/payment/delete-accommodation.sql",
+            "classpath:scripts/repository/payment/delete-booking.sql",
+            "classpath:scripts/repository/payment/delete-payment.sql"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findReusableSession_withPendingPayments_returnLiveSessionForAmount() {
+        Long expiredTime = 1737554400L;
+        Payment.PaymentStatus status = Payment.PaymentStatus.PENDING;
+
+        Payment live = paymentRepository.findReusableSession(1L, new BigDecimal("240"),
+                status, expiredTime - 60, Limit.of(1)).orElseThrow();
+
+        assertEquals("2334", live.getSessionId());
+        assertTrue(paymentRepository.findReusableSession(1L, new BigDecimal("240"), status,
+                expiredTime, Limit.of(1)).isEmpty());
+        assertTrue(paymentRepository.findReusableSession(1L, new BigDecimal("250"), status,
+                expiredTime - 60, Limit.of(1)).isEmpty());
+    }
 }
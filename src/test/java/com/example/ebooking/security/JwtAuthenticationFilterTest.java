@@ -0,0 +1,101 @@
+package com.example.ebooking.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ebooking.model.Role;
+import com.example.ebooking.model.User;
+import jakarta.servlet.FilterChain;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+    public static final Long DEFAULT_ID_ONE = 1L;
+    public static final int DEFAULT_TIMES = 1;
+    public static final String SECRET = "testSecretKeyThatIsLongEnoughForHmacSha256Signing";
+    public static final String USER_EMAIL = "bob@example.com";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+    @Mock
+    private FilterChain filterChain;
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "statelessExpiration", 300_000L);
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+
+        Role role = new Role();
+        role.setRole(Role.RoleName.ROLE_ADMIN);
+        user = new User();
+        user.setId(DEFAULT_ID_ONE);
+        user.setEmail(USER_EMAIL);
+        user.setRoles(Set.of(role));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Authenticates a stateless token from its claims without loading the user")
+    void doFilter_withStatelessToken_authenticateWithoutUserLookup() throws Exception {
+        ReflectionTestUtils.setField(jwtUtil, "statelessEnabled", true);
+        String token = jwtUtil.generateToken(user);
+
+        filter.doFilter(requestWithToken(token), new MockHttpServletResponse(), filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User principal = (User) authentication.getPrincipal();
+        assertEquals(DEFAULT_ID_ONE, principal.getId());
+        assertEquals(USER_EMAIL, principal.getEmail());
+        assertEquals(Set.of("ROLE_ADMIN"), Set.copyOf(authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList()));
+        verify(userDetailsService, never()).loadUserByUsername(USER_EMAIL);
+    }
+
+    @Test
+    @DisplayName("Loads the user for a token that only carries the subject")
+    void doFilter_withSubjectOnlyToken_loadUserByEmail() throws Exception {
+        String token = jwtUtil.generateToken(user);
+        when(userDetailsService.loadUserByUsername(USER_EMAIL)).thenReturn(user);
+
+        filter.doFilter(requestWithToken(token), new MockHttpServletResponse(), filterChain);
+
+        assertEquals(user, SecurityContextHolder.getContext().getAuthentication()
+                .getPrincipal());
+        verify(userDetailsService, times(DEFAULT_TIMES)).loadUserByUsername(USER_EMAIL);
+    }
+
+    private MockHttpServletRequest requestWithToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, JwtAuthenticationFilter.BEARER_STARTS + token);
+        return request;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.ebooking.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ebooking.config.CacheConfig;
+import com.example.ebooking.dto.accommodation.AccommodationRequestDto;
+import com.example.ebooking.dto.accommodation.AccommodationResponseDto;
+import com.example.ebooking.mapper.AccommodationMapper;
+import com.example.ebooking.model.Accommodation;
+import com.example.ebooking.repository.accommodation.AccommodationRepository;
+import com.example.ebooking.repository.accommodation.AccommodationSpecificationBuilder;
+import com.example.ebooking.service.accommodation.AccommodationService;
+import com.example.ebooking.service.accommodation.AccommodationServiceImpl;
+import com.example.ebooking.service.notification.NotificationService;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+@SpringBootTest(classes = {CacheConfig.class, AccommodationServiceImpl.class})
+public class AccommodationCacheTest {
+    public static final Long DEFAULT_ID_ONE = 1L;
+
+    @Autowired
+    private AccommodationService accommodationService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private AccommodationRepository accommodationRepository;
+    @MockBean
+    private AccommodationMapper accommodationMapper;
+    @MockBean
+    private NotificationService notificationService;
+    @MockBean
+    private AccommodationSpecificationBuilder specificationBuilder;
+
+    private Accommodation accommodation;
+    private Pageable pageable;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.ACCOMMODATIONS_CACHE).clear();
+        cacheManager.getCache(CacheConfig.ACCOMMODATION_PAGES_CACHE).clear();
+
+        accommodation = new Accommodation();
+        accommodation.setId(DEFAULT_ID_ONE);
+        AccommodationResponseDto responseDto = new AccommodationResponseDto();
+        responseDto.setId(DEFAULT_ID_ONE);
+        pageable = PageRequest.of(0, 10);
+
+        when(accommodationRepository.findById(DEFAULT_ID_ONE))
+                .thenReturn(Optional.of(accommodation));
+        when(accommodationRepository.findByIdGreaterThanOrderByIdAsc(0L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(accommodation)));
+        when(accommodationRepository.save(any(Accommodation.class))).thenReturn(accommodation);
+        when(accommodationMapper.toDto(accommodation)).thenReturn(responseDto);
+        when(accommodationMapper.toListDto(List.of(accommodation)))
+                .thenReturn(List.of(responseDto));
+    }
+
+    @Test
+    @DisplayName("Serves repeated reads of an accommodation and a page from cache")
+    void getAccommodationByIdAndGetAll_calledTwice_queryDatabaseOnce() {
+        accommodationService.getAccommodationById(DEFAULT_ID_ONE);
+        accommodationService.getAccommodationById(DEFAULT_ID_ONE);
+        accommodationService.getAll(null, 10);
+        accommodationService.getAll(null, 10);
+
+        verify(accommodationRepository, times(1)).findById(DEFAULT_ID_ONE);
+        verify(accommodationRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, pageable);
+    }
+
+    @Test
+    @DisplayName("Save evicts cached pages")
+    void save_cachedPage_evictPages() {
+        when(accommodationMapper.toModel(any(AccommodationRequestDto.class)))
+                .thenReturn(accommodation);
+
+        accommodationService.getAll(null, 10);
+        accommodationService.save(new AccommodationRequestDto());
+        accommodationService.getAll(null, 10);
+
+        verify(accommodationRepository, times(2)).findByIdGreaterThanOrderByIdAsc(0L, pageable);
+    }
+
+    @Test
+    @DisplayName("Delete evicts the accommodation and cached pages")
+    void deleteById_cachedAccommodationAndPage_evictBoth() {
+        accommodationService.getAccommodationById(DEFAULT_ID_ONE);
+        accommodationService.getAll(null, 10);
+        accommodationService.deleteById(DEFAULT_ID_ONE);
+        accommodationService.getAccommodationById(DEFAULT_ID_ONE);
+        accommodationService.getAll(null, 10);
+
+        verify(accommodationRepository, times(2)).findById(DEFAULT_ID_ONE);
+        verify(accommodationRepository, times(2)).findByIdGreaterThanOrderByIdAsc(0L, pageable);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.ebooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ebooking.model.Accommodation;
+import com.example.ebooking.model.Booking;
+import com.example.ebooking.repository.accommodation.AccommodationRepository;
+import com.example.ebooking.repository.inventory.AccommodationInventoryRepository;
+import com.example.ebooking.service.inventory.AccommodationInventoryServiceImpl;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class AccommodationInventoryServiceTest {
+    public static final Long DEFAULT_ID_ONE = 1L;
+    public static final int DEFAULT_TIMES = 1;
+
+    @InjectMocks
+    private AccommodationInventoryServiceImpl inventoryService;
+
+    @Mock
+    private AccommodationInventoryRepository inventoryRepository;
+
+    @Mock
+    private AccommodationRepository accommodationRepository;
+
+    @Test
+    @DisplayName("Returns max booked units only for the nights of the stay")
+    void getMaxBookedUnits_withMultiNightStay_returnMaxForStayNights() {
+        LocalDateTime checkIn = LocalDateTime.of(2025, 1, 25, 14, 0);
+        LocalDateTime checkOut = LocalDateTime.of(2025, 1, 28, 11, 0);
+
+        when(inventoryRepository.findMaxBookedUnits(DEFAULT_ID_ONE,
+                LocalDate.of(2025, 1, 25), LocalDate.of(2025, 1, 28)))
+                .thenReturn(2);
+
+        int actual = inventoryService.getMaxBookedUnits(DEFAULT_ID_ONE, checkIn, checkOut);
+
+        assertEquals(2, actual);
+        verify(inventoryRepository, times(DEFAULT_TIMES)).findMaxBookedUnits(DEFAULT_ID_ONE,
+                LocalDate.of(2025, 1, 25), LocalDate.of(2025, 1, 28));
+    }
+
+    @Test
+    @DisplayName("Reserves one night for a stay that starts and ends on the same day")
+    void reserve_withSameDayStay_reserveOneNight() {
+        LocalDateTime checkIn = LocalDateTime.of(2025, 1, 25, 10, 0);
+        LocalDateTime checkOut = LocalDateTime.of(2025, 1, 25, 18, 0);
+
+        inventoryService.reserve(DEFAULT_ID_ONE, checkIn, checkOut);
+
+        verify(inventoryRepository, times(DEFAULT_TIMES)).adjustBookedUnits(DEFAULT_ID_ONE,
+                LocalDate.of(2025, 1, 25), LocalDate.of(2025, 1, 26), 1);
+    }
+
+    @Test
+    @DisplayName("Releases one unit for every night of the stay")
+    void release_withMultiNightStay_decrementNights() {
+        LocalDateTime checkIn = LocalDateTime.of(2025, 1, 25, 14, 0);
+        LocalDateTime checkOut = LocalDateTime.of(2025, 1, 27, 11, 0);
+
+        inventoryService.release(DEFAULT_ID_ONE, checkIn, checkOut);
+
+        verify(inventoryRepository, times(DEFAULT_TIMES)).adjustBookedUnits(DEFAULT_ID_ONE,
+                LocalDate.of(2025, 1, 25), LocalDate.of(2025, 1, 27), -1);
+    }
+
+    @Test
+    @DisplayName("Reserves only the bookings whose nights still have a free unit")
+    void reserveIfAvailable_withSoldOutNights_reserveBookingsThatFit() {
+        Accommodation accommodation = new Accommodation();
+        accommodation.setId(DEFAULT_ID_ONE);
+        accommodation.setAvailability(1);
+        Booking fits = booking(10L, accommodation, LocalDateTime.of(2025, 1, 25, 14, 0));
+        Booking soldOut = booking(11L, accommodation, LocalDateTime.of(2025, 2, 25, 14, 0));
+
+        when(accommodationRepository.findByIdForUpdate(DEFAULT_ID_ONE))
+                .thenReturn(Optional.of(accommodation));
+        when(inventoryRepository.findMaxBookedUnits(DEFAULT_ID_ONE,
+                LocalDate.of(2025, 1, 25), LocalDate.of(2025, 1, 27))).thenReturn(0);
+        when(inventoryRepository.findMaxBookedUnits(DEFAULT_ID_ONE,
+                LocalDate.of(2025, 2, 25), LocalDate.of(2025, 2, 27))).thenReturn(1);
+
+        Set<Long> actual = inventoryService.reserveIfAvailable(List.of(soldOut, fits));
+
+        assertEquals(Set.of(10L), actual);
+        verify(inventoryRepository, times(DEFAULT_TIMES)).adjustBookedUnits(DEFAULT_ID_ONE,
+                LocalDate.of(2025, 1, 25), LocalDate.of(2025, 1, 27), 1);
+        verify(inventoryRepository, never()).adjustBookedUnits(DEFAULT_ID_ONE,
+                LocalDate.of(2025, 2, 25), LocalDate.of(2025, 2, 27), 1);
+    }
+
+    @Test
+    @DisplayName("Reserves nothing for bookings of a deleted accommodation")
+    void reserveIfAvailable_withDeletedAccommodation_reserveNothing() {
+        Accommodation accommodation = new Accommodation();
+        accommodation.setId(DEFAULT_ID_ONE);
+        Booking booking = booking(10L, accommodation, LocalDateTime.of(2025, 1, 25, 14, 0));
+
+        when(accommodationRepository.findByIdForUpdate(DEFAULT_ID_ONE))
+                .thenReturn(Optional.empty());
+
+        Set<Long> actual = inventoryService.reserveIfAvailable(List.of(booking));
+
+        assertEquals(Set.of(), actual);
+        verify(inventoryRepository, never()).findMaxBookedUnits(DEFAULT_ID_ONE,
+                LocalDate.of(2025, 1, 25), LocalDate.of(2025, 1, 27));
+        verify(inventoryRepository, never()).adjustBookedUnits(DEFAULT_ID_ONE,
+                LocalDate.of(2025, 1, 25), LocalDate.of(2025, 1, 27), 1);
+    }
+
+    @Test
+    @DisplayName("Rebuilds the ledger from bookings under a table lock")
+    void rebuild_regenerateLedgerFromBookings() {
+        inventoryService.rebuild();
+
+        verify(inventoryRepository, times(DEFAULT_TIMES)).lockForRebuild();
+        verify(inventoryRepository, times(DEFAULT_TIMES)).deleteAllNights();
+        verify(inventoryRepository, times(DEFAULT_TIMES)).insertNightsFromBookings();
+    }
+
+    private Booking booking(Long id, Accommodation accommodation, LocalDateTime checkIn) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setAccommodation(accommodation);
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkIn.plusDays(2).withHour(11));
+        return booking;
+    }
+}
@@ -2,18 +2,25 @@ package com.example.ebooking.service;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.example.ebooking.dto.accommodation.AccommodationRequestDto;
 import com.example.ebooking.dto.accommodation.AccommodationResponseDto;
+import com.example.ebooking.dto.accommodation.AccommodationSearchParameters;
+import com.example.ebooking.dto.pagination.CursorPage;
 import com.example.ebooking.exception.exceptions.EntityNotFoundException;
 import com.example.ebooking.mapper.AccommodationMapper;
 import com.example.ebooking.model.Accommodation;
 import com.example.ebooking.repository.accommodation.AccommodationRepository;
+import com.example.ebooking.repository.accommodation.AccommodationSpecificationBuilder;
 import com.example.ebooking.service.accommodation.AccommodationServiceImpl;
 import com.example.ebooking.service.notification.TelegramNotificationService;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
@@ -22,10 +29,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 
 @ExtendWith(MockitoExtension.class)
 public class AccommodationServiceTest {
@@ -41,6 +49,8 @@ public class AccommodationServiceTest {
     private AccommodationMapper accommodationMapper;
     @Mock
     private TelegramNotificationService notificationService;
+    @Mock
+    private AccommodationSpecificationBuilder specificationBuilder;
 
     @Test
     @DisplayName("Returns list accommodation from database")
@@ -57,19 +67,56 @@ public class AccommodationServiceTest {
 
         Pageable pageable = PageRequest.of(0, 10);
         List<Accommodation> expected = List.of(accommodation);
-        Page<Accommodation> accommodationPage = new PageImpl<>(expected, pageable, expected.size());
+        Slice<Accommodation> accommodationSlice = new SliceImpl<>(expected, pageable, false);
 
-        when(accommodationRepository.findAll(pageable)).thenReturn(accommodationPage);
+        when(accommodationRepository.findByIdGreaterThanOrderByIdAsc(0L, pageable))
+                .thenReturn(accommodationSlice);
         when(accommodationMapper.toListDto(expected)).thenReturn(List.of(responseDto));
 
-        List<AccommodationResponseDto> actual = accommodationService.getAll(pageable);
+        CursorPage<AccommodationResponseDto> actual = accommodationService.getAll(null, 10);
 
-        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.size(), actual.content().size());
 
-        verify(accommodationRepository, times(DEFAULT_TIMES)).findAll(pageable);
+        verify(accommodationRepository, times(DEFAULT_TIMES))
+                .findByIdGreaterThanOrderByIdAsc(0L, pageable);
         verify(accommodationMapper, times(DEFAULT_TIMES)).toListDto(expected);
     }
 
+    @Test
+    @DisplayName("Returns accommodations found by search parameters")
+    void search_withValidParameters_returnFoundAccommodation() {
+        Accommodation accommodation = new Accommodation();
+        accommodation.setId(DEFAULT_ID_ONE);
+        accommodation.setType(Accommodation.Type.HOUSE);
+        accommodation.setLocation("Lviv, Shevchenko street, 17");
+
+        AccommodationResponseDto responseDto = new AccommodationResponseDto();
+        responseDto.setId(accommodation.getId());
+        responseDto.setType(accommodation.getType().toString());
+        responseDto.setLocation(accommodation.getLocation());
+
+        AccommodationSearchParameters parameters = new AccommodationSearchParameters("Lviv",
+                new Accommodation.Type[]{Accommodation.Type.HOUSE}, null, null,
+                BigDecimal.valueOf(150), null, null);
+        Specification<Accommodation> specification = Specification.where(null);
+        List<Accommodation> expected = List.of(accommodation);
+
+        when(specificationBuilder.build(parameters)).thenReturn(specification);
+        when(accommodationRepository.findWindowBy(any(Specification.class), eq(11)))
+                .thenReturn(expected);
+        when(accommodationMapper.toListDto(expected)).thenReturn(List.of(responseDto));
+
+        CursorPage<AccommodationResponseDto> actual = accommodationService.search(parameters,
+                null, 10);
+
+        assertEquals(List.of(responseDto), actual.content());
+        assertNull(actual.nextCursor());
+
+        verify(specificationBuilder, times(DEFAULT_TIMES)).build(parameters);
+        verify(accommodationRepository, times(DEFAULT_TIMES))
+                .findWindowBy(any(Specification.class), eq(11));
+    }
+
     @Test
     @DisplayName("Returns accommodation by id with valid id")
     void getAccommodationById_withValidId_returnAccommodation() {
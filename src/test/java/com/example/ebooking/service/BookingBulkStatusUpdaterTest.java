@@ -0,0 +1,97 @@
+package com.example.ebooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ebooking.dto.booking.BookingFilterParameters;
+import com.example.ebooking.dto.booking.BookingStatusChunkDto;
+import com.example.ebooking.dto.booking.BulkUpdateBookingStatusRequestDto;
+import com.example.ebooking.dto.booking.BulkUpdateBookingStatusResponseDto;
+import com.example.ebooking.model.Booking;
+import com.example.ebooking.repository.booking.BookingSpecificationBuilder;
+import com.example.ebooking.service.booking.BookingBulkStatusUpdater;
+import com.example.ebooking.service.booking.BookingService;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingBulkStatusUpdaterTest {
+    private static final int CHUNK_SIZE = 2;
+
+    @InjectMocks
+    private BookingBulkStatusUpdater bulkStatusUpdater;
+
+    @Mock
+    private BookingService bookingService;
+    @Mock
+    private BookingSpecificationBuilder specificationBuilder;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkStatusUpdater, "chunkSize", CHUNK_SIZE);
+    }
+
+    @Test
+    @DisplayName("Walks the filter chunk by chunk until a chunk is not full")
+    void updateStatus_withFilter_returnResultPerChunk() {
+        BookingFilterParameters filter = new BookingFilterParameters(
+                new String[]{"PENDING"}, null);
+        BulkUpdateBookingStatusRequestDto requestDto = new BulkUpdateBookingStatusRequestDto();
+        requestDto.setStatus("CANCELED");
+        requestDto.setFilter(filter);
+        Specification<Booking> target = Specification.where(null);
+
+        when(specificationBuilder.build(filter)).thenReturn(target);
+        when(bookingService.updateStatusChunk(target, Booking.Status.CANCELED, 1, 0L,
+                CHUNK_SIZE))
+                .thenReturn(new BookingStatusChunkDto(1, 1L, 4L, 2, 2, List.of(), null));
+        when(bookingService.updateStatusChunk(target, Booking.Status.CANCELED, 2, 4L,
+                CHUNK_SIZE))
+                .thenReturn(new BookingStatusChunkDto(2, 9L, 9L, 1, 0, List.of(), null));
+
+        BulkUpdateBookingStatusResponseDto actual = bulkStatusUpdater.updateStatus(requestDto);
+
+        assertEquals("CANCELED", actual.status());
+        assertEquals(3, actual.matched());
+        assertEquals(2, actual.updated());
+        assertEquals(List.of(new BookingStatusChunkDto(1, 1L, 4L, 2, 2, List.of(), null),
+                new BookingStatusChunkDto(2, 9L, 9L, 1, 0, List.of(), null)), actual.chunks());
+    }
+
+    @Test
+    @DisplayName("Stops at the first failed chunk and reports its error")
+    void updateStatus_chunkFailed_stopAndReportError() {
+        BulkUpdateBookingStatusRequestDto requestDto = new BulkUpdateBookingStatusRequestDto();
+        requestDto.setStatus("CONFIRMED");
+        requestDto.setBookingIds(List.of(1L, 2L, 3L, 4L, 5L));
+
+        when(bookingService.updateStatusChunk(any(), eq(Booking.Status.CONFIRMED), eq(1),
+                eq(0L), eq(CHUNK_SIZE)))
+                .thenReturn(new BookingStatusChunkDto(1, 1L, 2L, 2, 2, List.of(), null));
+        when(bookingService.updateStatusChunk(any(), eq(Booking.Status.CONFIRMED), eq(2),
+                eq(2L), eq(CHUNK_SIZE)))
+                .thenThrow(new IllegalStateException("deadlock detected"));
+
+        BulkUpdateBookingStatusResponseDto actual = bulkStatusUpdater.updateStatus(requestDto);
+
+        assertEquals(2, actual.updated());
+        assertEquals(new BookingStatusChunkDto(2, null, null, 0, 0, List.of(),
+                        "deadlock detected"), actual.chunks().get(1));
+        verify(bookingService, never()).updateStatusChunk(any(), any(), eq(3), any(),
+                anyInt());
+        verify(specificationBuilder, never()).build(any());
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.ebooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.ebooking.config.CustomMyPostgresContainer;
+import com.example.ebooking.dto.booking.BookingRequestDto;
+import com.example.ebooking.exception.exceptions.BookingAvailabilityException;
+import com.example.ebooking.model.Booking;
+import com.example.ebooking.model.User;
+import com.example.ebooking.repository.booking.BookingRepository;
+import com.example.ebooking.repository.user.UserRepository;
+import com.example.ebooking.service.booking.BookingService;
+import com.example.ebooking.service.inventory.AccommodationInventoryService;
+import com.example.ebooking.service.notification.NotificationService;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest
+public class BookingConcurrencyTest {
+    public static final Long DEFAULT_ID_ONE = 1L;
+    public static final int AVAILABLE_UNITS = 2;
+    public static final int CONCURRENT_REQUESTS = 16;
+    public static final String USER_EMAIL = "bob@example.com";
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccommodationInventoryService inventoryService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        CustomMyPostgresContainer container = CustomMyPostgresContainer.getInstance();
+        container.start();
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        executeScript("scripts/service/booking/delete-bookings-and-accommodation.sql");
+        executeScript("scripts/service/booking/insert-accommodation.sql");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executeScript("scripts/service/booking/delete-bookings-and-accommodation.sql");
+    }
+
+    @Test
+    @DisplayName("Concurrent bookings of the same dates never exceed accommodation availability")
+    void save_concurrentRequestsForSameDates_admitOnlyAvailableUnits() throws Exception {
+        User user = userRepository.findByEmail(USER_EMAIL).orElseThrow();
+        LocalDateTime checkIn = LocalDateTime.now().plusDays(10).withHour(14).withMinute(0);
+        LocalDateTime checkOut = checkIn.plusDays(3).withHour(11);
+
+        BookingRequestDto requestDto = new BookingRequestDto();
+        requestDto.setAccommodationId(DEFAULT_ID_ONE);
+        requestDto.setCheckInDate(checkIn);
+        requestDto.setCheckOutDate(checkOut);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            results.add(executor.submit(() -> {
+                startLatch.await();
+                try {
+                    bookingService.save(user, requestDto);
+                    return true;
+                } catch (BookingAvailabilityException e) {
+                    return false;
+                }
+            }));
+        }
+        startLatch.countDown();
+
+        int admitted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                admitted++;
+            }
+        }
+        executor.shutdown();
+
+        List<Booking> activeBookings = bookingRepository.findOverlappingBookings(DEFAULT_ID_ONE,
+                checkIn, checkOut, List.of(Booking.Status.PENDING, Booking.Status.CONFIRMED),
+                null);
+
+        assertEquals(AVAILABLE_UNITS, admitted);
+        assertEquals(AVAILABLE_UNITS, activeBookings.size());
+        assertEquals(AVAILABLE_UNITS,
+                inventoryService.getMaxBookedUnits(DEFAULT_ID_ONE, checkIn, checkOut));
+    }
+
+    @Test
+    @DisplayName("Concurrent cancels of the same booking release its nights only once")
+    void canceledById_concurrentRequestsForSameBooking_releaseOnce() throws Exception {
+        final User user = userRepository.findByEmail(USER_EMAIL).orElseThrow();
+        LocalDateTime checkIn = LocalDateTime.now().plusDays(10).withHour(14).withMinute(0);
+        LocalDateTime checkOut = checkIn.plusDays(3).withHour(11);
+
+        BookingRequestDto requestDto = new BookingRequestDto();
+        requestDto.setAccommodationId(DEFAULT_ID_ONE);
+        requestDto.setCheckInDate(checkIn);
+        requestDto.setCheckOutDate(checkOut);
+
+        bookingService.save(user, requestDto);
+        Long kept = bookingService.save(user, requestDto).getId();
+        Long canceled = bookingRepository.findOverlappingBookings(DEFAULT_ID_ONE, checkIn,
+                checkOut, List.of(Booking.Status.PENDING), kept).get(0).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            results.add(executor.submit(() -> {
+                startLatch.await();
+                bookingService.canceledById(user, canceled);
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(Booking.Status.CANCELED,
+                bookingRepository.findById(canceled).orElseThrow().getStatus());
+        assertEquals(1, inventoryService.getMaxBookedUnits(DEFAULT_ID_ONE, checkIn, checkOut));
+    }
+
+    @SneakyThrows
+    private void executeScript(String path) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(path));
+        }
+    }
+}
@@ -3,11 +3,13 @@ package com.example.ebooking.service;
 import static org.apache.commons.lang3.builder.EqualsBuilder.reflectionEquals;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -15,6 +17,9 @@ import static org.mockito.Mockito.when;
 import com.example.ebooking.dto.booking.BookingFilterParameters;
 import com.example.ebooking.dto.booking.BookingRequestDto;
 import com.example.ebooking.dto.booking.BookingResponseDto;
+import com.example.ebooking.dto.booking.BookingStatusChunkDto;
+import com.example.ebooking.dto.booking.UpdateBookingStatusRequestDto;
+import com.example.ebooking.dto.pagination.CursorPage;
 import com.example.ebooking.exception.exceptions.BookingAvailabilityException;
 import com.example.ebooking.exception.exceptions.EntityNotFoundException;
 import com.example.ebooking.mapper.BookingMapper;
@@ -27,28 +32,35 @@ import com.example.ebooking.repository.booking.BookingSpecificationBuilder;
 import com.example.ebooking.repository.booking.spec.StatusSpecificationProvider;
 import com.example.ebooking.repository.user.UserRepository;
 import com.example.ebooking.service.booking.BookingServiceImpl;
+import com.example.ebooking.service.inventory.AccommodationInventoryService;
 import com.example.ebooking.service.notification.TelegramNotificationService;
 import com.example.ebooking.service.payment.StripePaymentService;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specification;
 
 @ExtendWith(MockitoExtension.class)
 public class BookingServiceTest {
     public static final Long DEFAULT_ID_ONE = 1L;
     public static final int DEFAULT_TIMES = 1;
+    private static final Instant NOW = Instant.parse("2030-01-01T00:00:00Z");
     
     @InjectMocks
     private BookingServiceImpl bookingService;
@@ -69,6 +81,10 @@ public class BookingServiceTest {
     private StripePaymentService paymentService;
     @Mock
     private StatusSpecificationProvider statusSpecificationProvider;
+    @Mock
+    private AccommodationInventoryService inventoryService;
+    @Spy
+    private Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
 
     @Test
     @DisplayName("Save booking with valid input data")
@@ -86,6 +102,7 @@ public class BookingServiceTest {
         Accommodation accommodation = new Accommodation();
         accommodation.setId(DEFAULT_ID_ONE);
         accommodation.setDailyRate(BigDecimal.valueOf(110));
+        accommodation.setAvailability(1);
 
         Booking booking = new Booking();
         booking.setId(DEFAULT_ID_ONE);
@@ -101,10 +118,11 @@ public class BookingServiceTest {
         expected.setCheckInDate(booking.getCheckInDate());
         expected.setCheckOutDate(booking.getCheckOutDate());
 
-        when(paymentService.existsByBookingUserIdAndStatus(user.getId()))
+        when(paymentService.hasPendingPayment(user.getId()))
                 .thenReturn(false);
-        when(bookingRepository.findByAccommodationId(DEFAULT_ID_ONE)).thenReturn(List.of());
-        when(accommodationRepository.findById(DEFAULT_ID_ONE))
+        when(inventoryService.getMaxBookedUnits(DEFAULT_ID_ONE,
+                requestDto.getCheckInDate(), requestDto.getCheckOutDate())).thenReturn(0);
+        when(accommodationRepository.findByIdForUpdate(DEFAULT_ID_ONE))
                 .thenReturn(Optional.of(accommodation));
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         when(bookingMapper.toModel(any(BookingRequestDto.class))).thenReturn(booking);
@@ -121,12 +139,15 @@ public class BookingServiceTest {
         verify(notificationService, times(DEFAULT_TIMES))
                 .sendBookingCreateMessage(accommodation, user, booking);
         verify(paymentService, times(DEFAULT_TIMES))
-                .existsByBookingUserIdAndStatus(user.getId());
-        verify(bookingRepository, times(DEFAULT_TIMES)).findByAccommodationId(DEFAULT_ID_ONE);
-        verify(accommodationRepository, times(DEFAULT_TIMES)).findById(DEFAULT_ID_ONE);
+                .hasPendingPayment(user.getId());
+        verify(inventoryService, times(DEFAULT_TIMES)).getMaxBookedUnits(DEFAULT_ID_ONE,
+                requestDto.getCheckInDate(), requestDto.getCheckOutDate());
+        verify(accommodationRepository, times(DEFAULT_TIMES)).findByIdForUpdate(DEFAULT_ID_ONE);
         verify(userRepository, times(DEFAULT_TIMES)).findById(DEFAULT_ID_ONE);
         verify(bookingMapper, times(DEFAULT_TIMES)).toModel(any(BookingRequestDto.class));
         verify(bookingRepository, times(DEFAULT_TIMES)).save(any(Booking.class));
+        verify(inventoryService, times(DEFAULT_TIMES)).reserve(DEFAULT_ID_ONE,
+                booking.getCheckInDate(), booking.getCheckOutDate());
         verify(bookingMapper, times(DEFAULT_TIMES)).toDto(any(Booking.class));
     }
 
@@ -154,21 +175,25 @@ public class BookingServiceTest {
         bookingFromDB.setCheckInDate(LocalDateTime.of(2024, 12, 28, 12, 0, 0));
         bookingFromDB.setCheckOutDate(LocalDateTime.of(2024, 12, 30, 12, 0, 0));
 
-        when(paymentService.existsByBookingUserIdAndStatus(user.getId()))
+        when(paymentService.hasPendingPayment(user.getId()))
                 .thenReturn(false);
-        when(bookingRepository.findByAccommodationId(DEFAULT_ID_ONE))
-                .thenReturn(List.of(bookingFromDB));
-        when(accommodationRepository.findById(DEFAULT_ID_ONE))
+        when(accommodationRepository.findByIdForUpdate(DEFAULT_ID_ONE))
                 .thenReturn(Optional.of(accommodation));
+        when(inventoryService.getMaxBookedUnits(DEFAULT_ID_ONE,
+                requestDto.getCheckInDate(), requestDto.getCheckOutDate())).thenReturn(1);
+        when(bookingRepository.findOverlappingBookings(DEFAULT_ID_ONE,
+                requestDto.getCheckInDate(), requestDto.getCheckOutDate(),
+                BookingServiceImpl.ACTIVE_STATUSES, null)).thenReturn(List.of(bookingFromDB));
 
         assertThatThrownBy(() -> bookingService.save(user, requestDto))
                 .isInstanceOf(BookingAvailabilityException.class)
                 .hasMessageContaining(String.format("Accommodation is booked from %s to %s.",
                         bookingFromDB.getCheckInDate(), bookingFromDB.getCheckOutDate()));
 
-        verify(paymentService, times(DEFAULT_TIMES)).existsByBookingUserIdAndStatus(user.getId());
-        verify(bookingRepository, times(DEFAULT_TIMES)).findByAccommodationId(DEFAULT_ID_ONE);
-        verify(accommodationRepository, times(DEFAULT_TIMES)).findById(DEFAULT_ID_ONE);
+        verify(paymentService, times(DEFAULT_TIMES)).hasPendingPayment(user.getId());
+        verify(inventoryService, times(DEFAULT_TIMES)).getMaxBookedUnits(DEFAULT_ID_ONE,
+                requestDto.getCheckInDate(), requestDto.getCheckOutDate());
+        verify(accommodationRepository, times(DEFAULT_TIMES)).findByIdForUpdate(DEFAULT_ID_ONE);
     }
 
     @Test
@@ -198,17 +223,20 @@ public class BookingServiceTest {
 
         Pageable pageable = PageRequest.of(0, 10);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, pageable, bookings.size());
+        Slice<Booking> bookingSlice = new SliceImpl<>(bookings, pageable, false);
 
-        when(bookingRepository.findByUserId(user.getId(), pageable))
-                .thenReturn(bookingPage);
+        when(bookingRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(user.getId(), 0L,
+                pageable)).thenReturn(bookingSlice);
         when(bookingMapper.toListDto(List.of(booking))).thenReturn(expected);
 
-        List<BookingResponseDto> actual = bookingService.getAllBookingsByUser(user, pageable);
+        CursorPage<BookingResponseDto> actual = bookingService.getAllBookingsByUser(user, null,
+                10);
 
-        assertEquals(expected, actual);
+        assertEquals(expected, actual.content());
+        assertNull(actual.nextCursor());
 
-        verify(bookingRepository, times(DEFAULT_TIMES)).findByUserId(user.getId(), pageable);
+        verify(bookingRepository, times(DEFAULT_TIMES))
+                .findByUserIdAndIdGreaterThanOrderByIdAsc(user.getId(), 0L, pageable);
         verify(bookingMapper, times(DEFAULT_TIMES)).toListDto(List.of(booking));
     }
 
@@ -221,17 +249,18 @@ public class BookingServiceTest {
 
         Pageable pageable = PageRequest.of(0, 10);
         List<Booking> bookings = List.of();
-        Page<Booking> bookingPage = new PageImpl<>(bookings, pageable, bookings.size());
+        Slice<Booking> bookingSlice = new SliceImpl<>(bookings, pageable, false);
 
-        when(bookingRepository.findByUserId(user.getId(), pageable))
-                .thenReturn(bookingPage);
+        when(bookingRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(user.getId(), 0L,
+                pageable)).thenReturn(bookingSlice);
 
-        assertThatThrownBy(() -> bookingService.getAllBookingsByUser(user, pageable))
+        assertThatThrownBy(() -> bookingService.getAllBookingsByUser(user, null, 10))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining("Can`t find bookings "
                         + "by user id: " + user.getId());
 
-        verify(bookingRepository, times(DEFAULT_TIMES)).findByUserId(user.getId(), pageable);
+        verify(bookingRepository, times(DEFAULT_TIMES))
+                .findByUserIdAndIdGreaterThanOrderByIdAsc(user.getId(), 0L, pageable);
     }
 
     @Test
@@ -310,6 +339,7 @@ public class BookingServiceTest {
         Accommodation accommodation = new Accommodation();
         accommodation.setId(DEFAULT_ID_ONE);
         accommodation.setDailyRate(BigDecimal.valueOf(110));
+        accommodation.setAvailability(1);
 
         Booking booking = new Booking();
         booking.setId(DEFAULT_ID_ONE);
@@ -327,9 +357,12 @@ public class BookingServiceTest {
         expected.setCheckInDate(requestDto.getCheckInDate());
         expected.setCheckOutDate(requestDto.getCheckOutDate());
 
-        when(bookingRepository.findByUserIdAndId(user.getId(), booking.getId()))
+        when(bookingRepository.findByUserIdAndIdForUpdate(user.getId(), booking.getId()))
                 .thenReturn(Optional.of(booking));
-        when(bookingRepository.findByAccommodationId(DEFAULT_ID_ONE)).thenReturn(List.of());
+        when(accommodationRepository.findByIdForUpdate(DEFAULT_ID_ONE))
+                .thenReturn(Optional.of(accommodation));
+        when(inventoryService.getMaxBookedUnits(DEFAULT_ID_ONE,
+                requestDto.getCheckInDate(), requestDto.getCheckOutDate())).thenReturn(0);
         doNothing().when(bookingMapper).updateBookingFromDto(requestDto, booking);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(bookingMapper.toDto(any(Booking.class))).thenReturn(expected);
@@ -343,11 +376,16 @@ public class BookingServiceTest {
         assertTrue(reflectionEquals(expected, actual, "id"));
 
         verify(bookingRepository, times(DEFAULT_TIMES))
-                .findByUserIdAndId(user.getId(), booking.getId());
-        verify(bookingRepository, times(DEFAULT_TIMES)).findByAccommodationId(DEFAULT_ID_ONE);
+                .findByUserIdAndIdForUpdate(user.getId(), booking.getId());
+        verify(inventoryService, times(DEFAULT_TIMES)).getMaxBookedUnits(DEFAULT_ID_ONE,
+                requestDto.getCheckInDate(), requestDto.getCheckOutDate());
         verify(bookingMapper, times(DEFAULT_TIMES))
                 .updateBookingFromDto(requestDto, booking);
         verify(bookingRepository, times(DEFAULT_TIMES)).save(any(Booking.class));
+        verify(inventoryService, times(DEFAULT_TIMES)).release(DEFAULT_ID_ONE,
+                booking.getCheckInDate(), booking.getCheckOutDate());
+        verify(inventoryService, times(DEFAULT_TIMES)).reserve(DEFAULT_ID_ONE,
+                booking.getCheckInDate(), booking.getCheckOutDate());
         verify(bookingMapper, times(DEFAULT_TIMES)).toDto(any(Booking.class));
     }
 
@@ -372,6 +410,7 @@ public class BookingServiceTest {
         Booking booking = new Booking();
         booking.setAccommodation(accommodation);
         booking.setId(2L);
+        booking.setStatus(Booking.Status.PENDING);
         booking.setCheckInDate(LocalDateTime.of(2024, 12, 27, 12, 0, 0));
         booking.setCheckOutDate(LocalDateTime.of(2024, 12, 29, 12, 0, 0));
 
@@ -383,12 +422,16 @@ public class BookingServiceTest {
 
         Long bookingId = DEFAULT_ID_ONE;
 
-        when(bookingRepository.findByUserIdAndId(anyLong(), anyLong()))
+        when(bookingRepository.findByUserIdAndIdForUpdate(anyLong(), anyLong()))
                 .thenReturn(Optional.of(booking));
-        when(bookingRepository.findByAccommodationId(anyLong()))
-                .thenReturn(List.of(overlappingBooking));
-        when(accommodationRepository.findById(accommodation.getId()))
+        when(accommodationRepository.findByIdForUpdate(accommodation.getId()))
                 .thenReturn(Optional.of(accommodation));
+        when(inventoryService.getMaxBookedUnits(accommodation.getId(),
+                requestDto.getCheckInDate(), requestDto.getCheckOutDate())).thenReturn(1);
+        when(bookingRepository.findOverlappingBookings(accommodation.getId(),
+                requestDto.getCheckInDate(), requestDto.getCheckOutDate(),
+                BookingServiceImpl.ACTIVE_STATUSES, booking.getId()))
+                .thenReturn(List.of(overlappingBooking));
 
         assertThatThrownBy(() -> bookingService.updateBookingByIdForAuthUser(
                 user,
@@ -400,9 +443,11 @@ public class BookingServiceTest {
                         overlappingBooking.getCheckInDate(), overlappingBooking.getCheckOutDate()));
 
         verify(bookingRepository, times(DEFAULT_TIMES))
-                .findByUserIdAndId(anyLong(), anyLong());
-        verify(bookingRepository, times(DEFAULT_TIMES)).findByAccommodationId(anyLong());
-        verify(accommodationRepository, times(DEFAULT_TIMES)).findById(accommodation.getId());
+                .findByUserIdAndIdForUpdate(anyLong(), anyLong());
+        verify(inventoryService, times(DEFAULT_TIMES)).getMaxBookedUnits(accommodation.getId(),
+                requestDto.getCheckInDate(), requestDto.getCheckOutDate());
+        verify(accommodationRepository, times(DEFAULT_TIMES))
+                .findByIdForUpdate(accommodation.getId());
     }
 
     @Test
@@ -420,28 +465,188 @@ public class BookingServiceTest {
         String[] userIdArray = new String[0];
         BookingFilterParameters parameters = new BookingFilterParameters(statusArray,
                 userIdArray);
-        Specification<Booking> mockSpecification = mock(Specification.class);
+        Specification<Booking> specification = (root, query, criteriaBuilder) -> null;
 
         List<BookingResponseDto> expected = List.of(responseDto);
 
-        Pageable pageable = PageRequest.of(0, 10);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, pageable, bookings.size());
 
-        when(specificationBuilder.build(parameters)).thenReturn(mockSpecification);
-        when(bookingRepository.findAll(mockSpecification, pageable))
-                .thenReturn(bookingPage);
+        when(specificationBuilder.build(parameters)).thenReturn(specification);
+        when(bookingRepository.findWithUserBy(any(Specification.class), eq(11)))
+                .thenReturn(bookings);
         when(bookingMapper.toListDto(bookings)).thenReturn(expected);
 
-        List<BookingResponseDto> actual = bookingService.getAllBookingByUserIdAndStatus(
+        CursorPage<BookingResponseDto> actual = bookingService.getAllBookingByUserIdAndStatus(
                 parameters,
-                pageable
+                null,
+                10
         );
 
-        assertEquals(expected, actual);
+        assertEquals(expected, actual.content());
+        assertNull(actual.nextCursor());
 
         verify(specificationBuilder, times(DEFAULT_TIMES)).build(parameters);
-        verify(bookingRepository, times(DEFAULT_TIMES)).findAll(mockSpecification, pageable);
         verify(bookingMapper, times(DEFAULT_TIMES)).toListDto(bookings);
     }
+
+    @Test
+    @DisplayName("Reject making a booking active again when its nights were sold")
+    void updateStatusById_toActiveStatusWithSoldNights_throwException() {
+        Booking booking = bookingWithStatus(5L, Booking.Status.CANCELED);
+        Accommodation accommodation = booking.getAccommodation();
+        accommodation.setAvailability(1);
+        UpdateBookingStatusRequestDto requestDto = new UpdateBookingStatusRequestDto();
+        requestDto.setStatus("CONFIRMED");
+
+        when(bookingRepository.findByIdForUpdate(5L)).thenReturn(Optional.of(booking));
+        when(accommodationRepository.findByIdForUpdate(DEFAULT_ID_ONE))
+                .thenReturn(Optional.of(accommodation));
+        when(inventoryService.getMaxBookedUnits(DEFAULT_ID_ONE, booking.getCheckInDate(),
+                booking.getCheckOutDate())).thenReturn(1);
+
+        assertThatThrownBy(() -> bookingService.updateStatusById(requestDto, 5L))
+                .isInstanceOf(BookingAvailabilityException.class);
+
+        verify(inventoryService, never()).reserve(any(), any(), any());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    @DisplayName("Cancel a chunk of bookings with one update and one notification")
+    void updateStatusChunk_withLockedBookings_releaseAndUpdateInBulk() {
+        Specification<Booking> target = Specification.where(null);
+        List<Long> bookingIds = List.of(3L, 4L, 7L);
+        List<Long> lockedIds = List.of(3L, 7L);
+
+        when(bookingRepository.findIdsBy(any(Specification.class), eq(3)))
+                .thenReturn(bookingIds);
+        when(bookingRepository.lockForStatusChange(bookingIds, "CANCELED"))
+                .thenReturn(lockedIds);
+        when(bookingRepository.updateStatusForBookings(lockedIds, Booking.Status.CANCELED))
+                .thenReturn(2);
+
+        BookingStatusChunkDto actual = bookingService.updateStatusChunk(target,
+                Booking.Status.CANCELED, 1, 0L, 3);
+
+        assertEquals(new BookingStatusChunkDto(1, 3L, 7L, 3, 2, List.of(), null), actual);
+        verify(inventoryService).releaseBookings(lockedIds);
+        verify(inventoryService, never()).reserveIfAvailable(any());
+        verify(notificationService).sendBookingStatusUpdateMessage(Booking.Status.CANCELED,
+                lockedIds);
+    }
+
+    @Test
+    @DisplayName("Reserve inventory for bookings that become active")
+    void updateStatusChunk_toActiveStatus_reserveInventory() {
+        List<Long> bookingIds = List.of(5L, 6L);
+        Booking pending = bookingWithStatus(5L, Booking.Status.PENDING);
+        Booking canceled = bookingWithStatus(6L, Booking.Status.CANCELED);
+
+        when(bookingRepository.findIdsBy(any(Specification.class), eq(10)))
+                .thenReturn(bookingIds);
+        when(bookingRepository.lockForStatusChange(bookingIds, "CONFIRMED"))
+                .thenReturn(bookingIds);
+        when(bookingRepository.findAllById(bookingIds)).thenReturn(List.of(pending, canceled));
+        when(inventoryService.reserveIfAvailable(List.of(canceled))).thenReturn(Set.of(6L));
+        when(bookingRepository.updateStatusForBookings(bookingIds, Booking.Status.CONFIRMED))
+                .thenReturn(2);
+
+        BookingStatusChunkDto actual = bookingService.updateStatusChunk(
+                Specification.where(null), Booking.Status.CONFIRMED, 2, 4L, 10);
+
+        assertEquals(new BookingStatusChunkDto(2, 5L, 6L, 2, 2, List.of(), null), actual);
+        verify(inventoryService, never()).releaseBookings(any());
+    }
+
+    @Test
+    @DisplayName("Keep the status of bookings whose nights were sold and report them")
+    void updateStatusChunk_toActiveStatusWithSoldNights_skipUnavailableBookings() {
+        List<Long> bookingIds = List.of(5L, 6L);
+        Booking fits = bookingWithStatus(5L, Booking.Status.EXPIRED);
+        Booking soldOut = bookingWithStatus(6L, Booking.Status.CANCELED);
+
+        when(bookingRepository.findIdsBy(any(Specification.class), eq(10)))
+                .thenReturn(bookingIds);
+        when(bookingRepository.lockForStatusChange(bookingIds, "PENDING"))
+                .thenReturn(bookingIds);
+        when(bookingRepository.findAllById(bookingIds)).thenReturn(List.of(fits, soldOut));
+        when(inventoryService.reserveIfAvailable(List.of(fits, soldOut)))
+                .thenReturn(Set.of(5L));
+        when(bookingRepository.updateStatusForBookings(List.of(5L), Booking.Status.PENDING))
+                .thenReturn(1);
+
+        BookingStatusChunkDto actual = bookingService.updateStatusChunk(
+                Specification.where(null), Booking.Status.PENDING, 1, 0L, 10);
+
+        assertEquals(new BookingStatusChunkDto(1, 5L, 6L, 2, 1, List.of(6L), null), actual);
+        verify(notificationService).sendBookingStatusUpdateMessage(Booking.Status.PENDING,
+                List.of(5L));
+    }
+
+    @Test
+    @DisplayName("Return an empty chunk when no booking is left to update")
+    void updateStatusChunk_noBookingsLeft_returnEmptyChunk() {
+        when(bookingRepository.findIdsBy(any(Specification.class), eq(10)))
+                .thenReturn(List.of());
+
+        BookingStatusChunkDto actual = bookingService.updateStatusChunk(
+                Specification.where(null), Booking.Status.CANCELED, 1, 0L, 10);
+
+        assertEquals(0, actual.matched());
+        verify(bookingRepository, never()).updateStatusForBookings(any(), any());
+        verify(notificationService, never()).sendBookingStatusUpdateMessage(any(), any());
+    }
+
+    @Test
+    @DisplayName("Expire finished bookings with one update")
+    void expireFinishedBookings_withFinishedBookings_expireInBulk() {
+        Accommodation accommodation = new Accommodation();
+        accommodation.setId(DEFAULT_ID_ONE);
+        Booking first = new Booking();
+        first.setId(1L);
+        first.setAccommodation(accommodation);
+        first.setCheckOutDate(LocalDateTime.of(2024, 1, 31, 11, 0));
+        Booking second = new Booking();
+        second.setId(2L);
+        second.setAccommodation(accommodation);
+        second.setCheckOutDate(LocalDateTime.of(2024, 2, 23, 14, 37));
+
+        when(bookingRepository.findFinishedActiveBookingsForUpdate(
+                LocalDateTime.now(clock), 10))
+                .thenReturn(List.of(first, second));
+
+        int expired = bookingService.expireFinishedBookings(10);
+
+        assertEquals(2, expired);
+        verify(inventoryService).releaseBookings(Set.of(1L, 2L));
+        verify(bookingRepository).updateStatusForExpiredBooking(Set.of(1L, 2L),
+                Booking.Status.EXPIRED);
+        verify(notificationService).sendAccommodationReleaseMessage(List.of(DEFAULT_ID_ONE));
+    }
+
+    @Test
+    @DisplayName("Do nothing when no finished booking is left")
+    void expireFinishedBookings_noFinishedBookings_doNothing() {
+        when(bookingRepository.findFinishedActiveBookingsForUpdate(
+                LocalDateTime.now(clock), 10))
+                .thenReturn(List.of());
+
+        int expired = bookingService.expireFinishedBookings(10);
+
+        assertEquals(0, expired);
+        verify(inventoryService, never()).releaseBookings(any());
+        verify(bookingRepository, never()).updateStatusForExpiredBooking(any(), any());
+    }
+
+    private Booking bookingWithStatus(Long id, Booking.Status status) {
+        Accommodation accommodation = new Accommodation();
+        accommodation.setId(DEFAULT_ID_ONE);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setAccommodation(accommodation);
+        booking.setStatus(status);
+        booking.setCheckInDate(LocalDateTime.of(2030, 2, 1, 14, 0));
+        booking.setCheckOutDate(LocalDateTime.of(2030, 2, 3, 11, 0));
+        return booking;
+    }
 }
@@ -0,0 +1,61 @@
+package com.example.ebooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.ebooking.service.payment.gateway.CircuitBreaker;
+import com.example.ebooking.util.MutableClock;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CircuitBreakerTest {
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    @DisplayName("Opens after consecutive failures and rejects calls while open")
+    void onFailure_thresholdReached_rejectCalls() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(clock, 2, OPEN_DURATION);
+
+        circuitBreaker.onFailure();
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Lets one trial call through after the open period and closes on success")
+    void tryAcquire_openPeriodElapsed_allowSingleTrialCall() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(clock, 1, OPEN_DURATION);
+        circuitBreaker.onFailure();
+
+        clock.advance(OPEN_DURATION);
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Failed trial call opens the circuit again")
+    void onFailure_trialCallFailed_reopenCircuit() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(clock, 3, OPEN_DURATION);
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        clock.advance(OPEN_DURATION);
+
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.ebooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ebooking.service.scheduling.ClusterJobRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+public class ClusterJobRunnerTest {
+    private static final String JOB_NAME = "test-job";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PreparedStatement lockStatement;
+    @Mock
+    private PreparedStatement unlockStatement;
+    @Mock
+    private ResultSet lockResult;
+    @Mock
+    private ResultSet unlockResult;
+
+    private MeterRegistry meterRegistry;
+    private ClusterJobRunner jobRunner;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        jobRunner = new ClusterJobRunner(jdbcTemplate, meterRegistry);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation ->
+                invocation.<String>getArgument(0).contains("pg_try_advisory_lock")
+                        ? lockStatement : unlockStatement);
+        when(lockStatement.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Run the job and record metrics when the lock is acquired")
+    void run_lockAcquired_runJobAndUnlock() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(unlockStatement.executeQuery()).thenReturn(unlockResult);
+
+        boolean ran = jobRunner.run(JOB_NAME, () -> 42);
+
+        assertTrue(ran);
+        verify(unlockStatement).executeQuery();
+        assertEquals(42, meterRegistry.get("scheduled.job.rows")
+                .tag("job", JOB_NAME).summary().totalAmount());
+        assertEquals(1, meterRegistry.get("scheduled.job.duration")
+                .tag("job", JOB_NAME).tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Skip the job when another node holds the lock")
+    void run_lockHeldElsewhere_skipJob() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(false);
+        AtomicBoolean jobCalled = new AtomicBoolean();
+
+        boolean ran = jobRunner.run(JOB_NAME, () -> {
+            jobCalled.set(true);
+            return 0;
+        });
+
+        assertFalse(ran);
+        assertFalse(jobCalled.get());
+        verify(unlockStatement, never()).executeQuery();
+        assertEquals(1, meterRegistry.get("scheduled.job.skipped")
+                .tag("job", JOB_NAME).counter().count());
+    }
+}
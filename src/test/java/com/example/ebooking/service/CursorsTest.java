@@ -0,0 +1,48 @@
+package com.example.ebooking.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.example.ebooking.dto.pagination.CursorPage;
+import com.example.ebooking.exception.exceptions.InvalidCursorException;
+import com.example.ebooking.service.pagination.Cursors;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CursorsTest {
+    @Test
+    @DisplayName("Decodes the cursor it encoded and starts from the first page without one")
+    void decode_encodedOrMissingCursor_returnAfterId() {
+        assertEquals(42L, Cursors.decode(Cursors.encode(42L)));
+        assertEquals(Cursors.FIRST_PAGE_ID, Cursors.decode(null));
+        assertEquals(Cursors.FIRST_PAGE_ID, Cursors.decode(""));
+    }
+
+    @Test
+    @DisplayName("Rejects cursors that were not issued by the API")
+    void decode_tamperedCursor_throwException() {
+        assertThatThrownBy(() -> Cursors.decode("not a cursor"))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> Cursors.decode("MTI"))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    @DisplayName("Drops the look-ahead row and points the cursor at the last returned row")
+    void toPage_rowsBeyondSize_returnNextCursor() {
+        CursorPage<Long> page = Cursors.toPage(List.of(1L, 2L, 3L), 2,
+                Function.identity(), Function.identity());
+
+        assertEquals(List.of(1L, 2L), page.content());
+        assertEquals(2L, Cursors.decode(page.nextCursor()));
+
+        CursorPage<Long> last = Cursors.toPage(List.of(3L), 2,
+                Function.identity(), Function.identity());
+
+        assertEquals(List.of(3L), last.content());
+        assertNull(last.nextCursor());
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.ebooking.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.ebooking.config.CacheConfig;
+import com.example.ebooking.dto.payment.CreatePaymentSessionDto;
+import com.example.ebooking.exception.exceptions.IdempotencyKeyException;
+import com.example.ebooking.model.IdempotencyKey;
+import com.example.ebooking.model.Payment;
+import com.example.ebooking.repository.idempotency.IdempotencyKeyRepository;
+import com.example.ebooking.service.idempotency.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceTest {
+    private static final Long USER_ID = 1L;
+    private static final String KEY = "3f1c2a9e-key";
+    private static final String OPERATION = "POST /payments/session";
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final Duration LEASE = Duration.ofMinutes(1);
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"),
+            ZoneOffset.UTC);
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger calls = new AtomicInteger();
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyKeyRepository, objectMapper,
+                CLOCK, new ConcurrentMapCacheManager(CacheConfig.IDEMPOTENCY_KEYS_CACHE));
+        ReflectionTestUtils.setField(idempotencyService, "ttl", TTL);
+        ReflectionTestUtils.setField(idempotencyService, "lease", LEASE);
+    }
+
+    @Test
+    @DisplayName("Runs the action without touching the key store when no key is sent")
+    void execute_withoutKey_runAction() {
+        CreatePaymentSessionDto actual = execute(null, 10L);
+
+        assertEquals(1, calls.get());
+        assertEquals("https://checkout.stripe.com/1", actual.getSessionUrl());
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    @DisplayName("Repeated request returns the stored response without running the action")
+    void execute_repeatedRequest_replayResponse() {
+        LocalDateTime now = LocalDateTime.now(CLOCK);
+        when(idempotencyKeyRepository.claim(eq(USER_ID), eq(KEY), anyString(), eq(now),
+                eq(now.plus(LEASE)), anyString())).thenReturn(1);
+        when(idempotencyKeyRepository.complete(eq(USER_ID), eq(KEY), anyString(), anyString(),
+                eq(now.plus(TTL)))).thenReturn(1);
+
+        CreatePaymentSessionDto first = execute(KEY, 10L);
+        final CreatePaymentSessionDto second = execute(KEY, 10L);
+
+        assertEquals(1, calls.get());
+        assertEquals(first, second);
+        verify(idempotencyKeyRepository, times(1)).claim(any(), any(), any(), any(), any(),
+                any());
+    }
+
+    @Test
+    @DisplayName("Replays a response completed by another node from the key store")
+    void execute_keyCompletedElsewhere_replayStoredResponse() throws Exception {
+        CreatePaymentSessionDto stored = session(7);
+        keyHeldElsewhere(objectMapper.writeValueAsString(stored));
+
+        CreatePaymentSessionDto actual = execute(KEY, 10L);
+
+        assertEquals(stored, actual);
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    @DisplayName("Rejects a key that is still being processed")
+    void execute_keyInProgress_throwException() {
+        keyHeldElsewhere(null);
+
+        assertThatThrownBy(() -> execute(KEY, 10L))
+                .isInstanceOf(IdempotencyKeyException.class)
+                .hasMessageContaining("still being processed");
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    @DisplayName("Rejects a key reused for a different request")
+    void execute_keyReusedForOtherRequest_throwException() {
+        when(idempotencyKeyRepository.claim(eq(USER_ID), eq(KEY), anyString(), any(), any(),
+                anyString())).thenReturn(1);
+        when(idempotencyKeyRepository.complete(eq(USER_ID), eq(KEY), anyString(), anyString(),
+                any())).thenReturn(1);
+        execute(KEY, 10L);
+
+        assertThatThrownBy(() -> execute(KEY, 11L))
+                .isInstanceOf(IdempotencyKeyException.class)
+                .hasMessageContaining("different request");
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Frees the key under its own lease when the action fails")
+    void execute_actionFailed_releaseKey() {
+        AtomicReference<String> leaseToken = new AtomicReference<>();
+        when(idempotencyKeyRepository.claim(eq(USER_ID), eq(KEY), anyString(), any(), any(),
+                anyString())).thenAnswer(invocation -> {
+                    leaseToken.set(invocation.getArgument(5));
+                    return 1;
+                });
+        Supplier<CreatePaymentSessionDto> failing = () -> {
+            throw new IllegalStateException("Stripe is down");
+        };
+
+        assertThatThrownBy(() -> idempotencyService.execute(USER_ID, KEY, OPERATION, 10L,
+                CreatePaymentSessionDto.class, failing))
+                .isInstanceOf(IllegalStateException.class);
+        verify(idempotencyKeyRepository).release(USER_ID, KEY, leaseToken.get());
+        verify(idempotencyKeyRepository, never()).complete(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Does not cache a response whose lease was taken over by a newer request")
+    void execute_leaseLost_doNotCacheResponse() {
+        when(idempotencyKeyRepository.claim(eq(USER_ID), eq(KEY), anyString(), any(), any(),
+                anyString())).thenReturn(1);
+        when(idempotencyKeyRepository.complete(eq(USER_ID), eq(KEY), anyString(), anyString(),
+                any())).thenReturn(0);
+
+        execute(KEY, 10L);
+        execute(KEY, 10L);
+
+        assertEquals(2, calls.get());
+        verify(idempotencyKeyRepository, times(2)).claim(any(), any(), any(), any(), any(),
+                any());
+    }
+
+    private CreatePaymentSessionDto execute(String key, Long bookingId) {
+        return idempotencyService.execute(USER_ID, key, OPERATION, bookingId,
+                CreatePaymentSessionDto.class, () -> session(calls.incrementAndGet()));
+    }
+
+    private void keyHeldElsewhere(String response) {
+        AtomicReference<String> requestHash = new AtomicReference<>();
+        when(idempotencyKeyRepository.claim(eq(USER_ID), eq(KEY), anyString(), any(), any(),
+                anyString())).thenAnswer(invocation -> {
+                    requestHash.set(invocation.getArgument(2));
+                    return 0;
+                });
+        when(idempotencyKeyRepository.findByUserIdAndKey(USER_ID, KEY))
+                .thenAnswer(invocation -> {
+                    IdempotencyKey idempotencyKey = new IdempotencyKey();
+                    idempotencyKey.setRequestHash(requestHash.get());
+                    idempotencyKey.setResponse(response);
+                    return Optional.of(idempotencyKey);
+                });
+    }
+
+    private CreatePaymentSessionDto session(int number) {
+        CreatePaymentSessionDto sessionDto = new CreatePaymentSessionDto();
+        sessionDto.setSessionUrl("https://checkout.stripe.com/" + number);
+        sessionDto.setAmount(BigDecimal.valueOf(100));
+        sessionDto.setStatus(Payment.PaymentStatus.PENDING);
+        return sessionDto;
+    }
+}
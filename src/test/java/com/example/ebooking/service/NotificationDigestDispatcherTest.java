@@ -0,0 +1,167 @@
+package com.example.ebooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.ebooking.model.NotificationOutboxMessage;
+import com.example.ebooking.model.NotificationType;
+import com.example.ebooking.service.notification.NotificationDigestDispatcher;
+import com.example.ebooking.util.MutableClock;
+import com.example.ebooking.util.StubNotificationBot;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class NotificationDigestDispatcherTest {
+    private static final Long CHAT_ID = 1L;
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+    private static final int MAX_MESSAGE_LENGTH = 4096;
+    private static final int MESSAGES_PER_MINUTE = 20;
+    private static final int BURST = 5;
+
+    private final AtomicLong ids = new AtomicLong();
+    private StubNotificationBot bot;
+    private MutableClock clock;
+    private NotificationDigestDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        bot = new StubNotificationBot(CHAT_ID);
+        clock = new MutableClock();
+        dispatcher = new NotificationDigestDispatcher(bot, clock, WINDOW,
+                MAX_MESSAGE_LENGTH, MESSAGES_PER_MINUTE, BURST);
+    }
+
+    @Test
+    @DisplayName("Single message in a batch is sent as is")
+    void dispatch_singleMessage_sendsOriginalMessage() {
+        NotificationOutboxMessage message = message(NotificationType.BOOKING_CREATED, "booking 1");
+
+        NotificationDigestDispatcher.DispatchResult result = dispatcher.dispatch(List.of(message));
+
+        assertEquals(List.of("booking 1"), bot.getSentMessages());
+        assertEquals(List.of(message.getId()), result.sentIds());
+    }
+
+    @Test
+    @DisplayName("Messages of the same type are coalesced into one digest in arrival order")
+    void dispatch_messagesOfSeveralTypes_sendsDigestPerTypeInOrder() {
+        List<NotificationOutboxMessage> messages = List.of(
+                message(NotificationType.BOOKING_CREATED, "booking 1"),
+                message(NotificationType.PAYMENT_SUCCEEDED, "payment 1"),
+                message(NotificationType.BOOKING_CREATED, "booking 2"),
+                message(NotificationType.BOOKING_CREATED, "booking 3"));
+
+        NotificationDigestDispatcher.DispatchResult result = dispatcher.dispatch(messages);
+
+        String separator = System.lineSeparator() + System.lineSeparator();
+        List<String> expected = List.of(
+                String.join(separator, "3 bookings created in the last 5s",
+                        "booking 1", "booking 2", "booking 3"),
+                "payment 1");
+        assertEquals(expected, bot.getSentMessages());
+        assertEquals(4, result.sentIds().size());
+    }
+
+    @Test
+    @DisplayName("Digest longer than the message limit is split into several messages")
+    void dispatch_digestOverMessageLimit_splitsDigest() {
+        String text = "x".repeat(1000);
+        List<NotificationOutboxMessage> messages = IntStream.range(0, 10)
+                .mapToObj(i -> message(NotificationType.BOOKING_CANCELED, text))
+                .toList();
+
+        dispatcher.dispatch(messages);
+
+        List<String> sent = bot.getSentMessages();
+        assertEquals(3, sent.size());
+        assertTrue(sent.get(0).startsWith("10 bookings canceled in the last 5s"));
+        assertTrue(sent.stream().allMatch(message -> message.length() <= MAX_MESSAGE_LENGTH));
+    }
+
+    @Test
+    @DisplayName("Messages over the chat rate limit are left unsent for the next run")
+    void dispatch_overRateLimit_leavesRestUnsentInOrder() {
+        List<NotificationOutboxMessage> unsent = new ArrayList<>();
+        for (int i = 0; i < BURST * 2; i++) {
+            NotificationOutboxMessage message =
+                    message(NotificationType.BOOKING_CREATED, "booking " + i);
+            if (dispatcher.dispatch(List.of(message)).sentIds().isEmpty()) {
+                unsent.add(message);
+            }
+        }
+
+        assertEquals(BURST, bot.getSentMessages().size());
+        assertEquals(BURST, unsent.size());
+
+        clock.advance(Duration.ofMinutes(1));
+        unsent.forEach(message -> dispatcher.dispatch(List.of(message)));
+
+        List<String> expected = IntStream.range(0, BURST * 2)
+                .mapToObj(i -> "booking " + i)
+                .toList();
+        assertEquals(expected, bot.getSentMessages());
+    }
+
+    @Test
+    @DisplayName("Large batch is delivered in a few digest messages within the rate limit")
+    void dispatch_largeBatch_deliversEveryMessageWithinRateLimit() {
+        int total = 8000;
+        List<NotificationOutboxMessage> messages = IntStream.range(0, total)
+                .mapToObj(i -> message(NotificationType.BOOKING_CREATED, "b"))
+                .toList();
+
+        NotificationDigestDispatcher.DispatchResult first = dispatcher.dispatch(messages);
+        assertEquals(BURST, bot.getSentMessages().size());
+
+        Set<Long> sentIds = new HashSet<>(first.sentIds());
+        List<NotificationOutboxMessage> rest = messages.stream()
+                .filter(message -> !sentIds.contains(message.getId()))
+                .toList();
+        clock.advance(Duration.ofMinutes(1));
+        NotificationDigestDispatcher.DispatchResult second = dispatcher.dispatch(rest);
+
+        assertEquals(total, first.sentIds().size() + second.sentIds().size());
+        assertEquals(total, countEvents(bot.getSentMessages()));
+        assertTrue(bot.getSentMessages().get(0)
+                .startsWith(total + " bookings created in the last 5s"));
+    }
+
+    @Test
+    @DisplayName("Messages are reported as failed when the bot has no chat to send to")
+    void dispatch_botNotInitialized_reportsFailed() {
+        StubNotificationBot notStartedBot = new StubNotificationBot(null);
+        NotificationDigestDispatcher notStartedDispatcher = new NotificationDigestDispatcher(
+                notStartedBot, clock, WINDOW, MAX_MESSAGE_LENGTH, MESSAGES_PER_MINUTE, BURST);
+        NotificationOutboxMessage message = message(NotificationType.BOOKING_CREATED, "booking 1");
+
+        NotificationDigestDispatcher.DispatchResult result =
+                notStartedDispatcher.dispatch(List.of(message));
+
+        assertTrue(notStartedBot.getSentMessages().isEmpty());
+        assertEquals(List.of(message.getId()), result.failedIds());
+    }
+
+    private NotificationOutboxMessage message(NotificationType type, String text) {
+        NotificationOutboxMessage message = new NotificationOutboxMessage();
+        message.setId(ids.incrementAndGet());
+        message.setType(type);
+        message.setMessage(text);
+        message.setStatus(NotificationOutboxMessage.Status.PENDING);
+        return message;
+    }
+
+    private long countEvents(List<String> messages) {
+        return messages.stream()
+                .flatMap(String::lines)
+                .filter("b"::equals)
+                .count();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.ebooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ebooking.model.NotificationOutboxMessage;
+import com.example.ebooking.service.notification.NotificationDigestDispatcher;
+import com.example.ebooking.service.notification.NotificationOutboxRelay;
+import com.example.ebooking.service.notification.NotificationOutboxStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationOutboxRelayTest {
+    @InjectMocks
+    private NotificationOutboxRelay outboxRelay;
+
+    @Mock
+    private NotificationOutboxStore outboxStore;
+
+    @Mock
+    private NotificationDigestDispatcher digestDispatcher;
+
+    @Spy
+    private Clock clock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 100);
+        ReflectionTestUtils.setField(outboxRelay, "retention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(outboxRelay, "failedRetention", Duration.ofDays(30));
+    }
+
+    @Test
+    @DisplayName("Claimed batch is sent between the claim and the outcome transactions")
+    void relay_claimedBatch_sendsThenRecordsOutcome() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<NotificationOutboxMessage> batch =
+                List.of(message(1L, now.minusSeconds(40)), message(2L, now.minusSeconds(10)));
+        NotificationDigestDispatcher.DispatchResult result =
+                new NotificationDigestDispatcher.DispatchResult(List.of(1L), List.of(2L));
+        when(outboxStore.claimDue(now, 100)).thenReturn(batch);
+        when(digestDispatcher.dispatch(batch)).thenReturn(result);
+
+        int sentCount = outboxRelay.relay();
+
+        assertEquals(1, sentCount);
+        InOrder order = inOrder(outboxStore, digestDispatcher);
+        order.verify(outboxStore).claimDue(now, 100);
+        order.verify(digestDispatcher).dispatch(batch);
+        order.verify(outboxStore).recordOutcome(batch, result, now);
+        Timer latency = meterRegistry.get("notification.outbox.delivery.latency").timer();
+        assertEquals(1, latency.count());
+        assertEquals(40, latency.totalTime(TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Nothing is dispatched when no message is due")
+    void relay_nothingDue_doesNotDispatch() {
+        when(outboxStore.claimDue(any(), any(Integer.class))).thenReturn(List.of());
+
+        assertEquals(0, outboxRelay.relay());
+
+        verify(digestDispatcher, never()).dispatch(any());
+        verify(outboxStore, never()).recordOutcome(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Purge removes old sent messages and failed ones past their retention")
+    void purge_oldMessages_deleteSentAndFailed() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        when(outboxStore.deleteSentBefore(now.minusDays(7))).thenReturn(5);
+        when(outboxStore.deleteFailedBefore(now.minusDays(30))).thenReturn(2);
+
+        assertEquals(7, outboxRelay.purge());
+    }
+
+    private NotificationOutboxMessage message(Long id, LocalDateTime createdAt) {
+        NotificationOutboxMessage message = new NotificationOutboxMessage();
+        message.setId(id);
+        message.setCreatedAt(createdAt);
+        return message;
+    }
+}
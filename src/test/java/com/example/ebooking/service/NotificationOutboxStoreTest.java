@@ -0,0 +1,102 @@
+package com.example.ebooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ebooking.model.NotificationOutboxMessage;
+import com.example.ebooking.model.NotificationType;
+import com.example.ebooking.repository.notification.NotificationOutboxRepository;
+import com.example.ebooking.service.notification.NotificationDigestDispatcher;
+import com.example.ebooking.service.notification.NotificationOutboxStore;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationOutboxStoreTest {
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(2);
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @InjectMocks
+    private NotificationOutboxStore outboxStore;
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxStore, "claimLease", CLAIM_LEASE);
+        ReflectionTestUtils.setField(outboxStore, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(outboxStore, "retryBackoff", RETRY_BACKOFF);
+    }
+
+    @Test
+    @DisplayName("Claimed messages are leased out until the claim lease runs out")
+    void claimDue_dueMessages_leasesThemOut() {
+        NotificationOutboxMessage message = message(1L, 0);
+        when(outboxRepository.findDueForUpdate(NOW, 100)).thenReturn(List.of(message));
+
+        List<NotificationOutboxMessage> claimed = outboxStore.claimDue(NOW, 100);
+
+        assertEquals(List.of(message), claimed);
+        assertEquals(NOW.plus(CLAIM_LEASE), message.getNextAttemptAt());
+    }
+
+    @Test
+    @DisplayName("Sent messages are marked, failed ones are rescheduled with backoff")
+    void recordOutcome_mixedResult_marksSentAndReschedulesFailed() {
+        NotificationOutboxMessage sent = message(1L, 0);
+        NotificationOutboxMessage failed = message(2L, 1);
+        NotificationOutboxMessage rateLimited = message(3L, 0);
+        when(outboxRepository.findAllById(List.of(2L, 3L)))
+                .thenReturn(List.of(failed, rateLimited));
+
+        outboxStore.recordOutcome(List.of(sent, failed, rateLimited),
+                new NotificationDigestDispatcher.DispatchResult(List.of(1L), List.of(2L)),
+                NOW);
+
+        verify(outboxRepository).markSent(List.of(1L), NOW);
+        assertEquals(2, failed.getAttempts());
+        assertEquals(NOW.plus(RETRY_BACKOFF.multipliedBy(2)), failed.getNextAttemptAt());
+        assertEquals(NotificationOutboxMessage.Status.PENDING, failed.getStatus());
+        assertEquals(0, rateLimited.getAttempts());
+        assertEquals(NOW, rateLimited.getNextAttemptAt());
+    }
+
+    @Test
+    @DisplayName("Message that runs out of attempts is marked as failed")
+    void recordOutcome_lastAttemptFailed_marksMessageFailed() {
+        NotificationOutboxMessage message = message(1L, MAX_ATTEMPTS - 1);
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(message));
+
+        outboxStore.recordOutcome(List.of(message),
+                new NotificationDigestDispatcher.DispatchResult(List.of(), List.of(1L)), NOW);
+
+        assertEquals(NotificationOutboxMessage.Status.FAILED, message.getStatus());
+        verify(outboxRepository, never()).markSent(any(), any());
+    }
+
+    private NotificationOutboxMessage message(Long id, int attempts) {
+        NotificationOutboxMessage message = new NotificationOutboxMessage();
+        message.setId(id);
+        message.setType(NotificationType.BOOKING_CREATED);
+        message.setMessage("booking " + id);
+        message.setStatus(NotificationOutboxMessage.Status.PENDING);
+        message.setAttempts(attempts);
+        message.setNextAttemptAt(NOW.plus(CLAIM_LEASE));
+        return message;
+    }
+}
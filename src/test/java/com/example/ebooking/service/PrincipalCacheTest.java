@@ -0,0 +1,93 @@
+package com.example.ebooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ebooking.config.CacheConfig;
+import com.example.ebooking.dto.user.UserUpdatePasswordDto;
+import com.example.ebooking.mapper.UserMapper;
+import com.example.ebooking.model.User;
+import com.example.ebooking.repository.role.RoleRepository;
+import com.example.ebooking.repository.user.UserRepository;
+import com.example.ebooking.security.CustomUserDetailsService;
+import com.example.ebooking.service.user.UserService;
+import com.example.ebooking.service.user.UserServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@SpringBootTest(classes = {CacheConfig.class, CustomUserDetailsService.class,
+        UserServiceImpl.class})
+public class PrincipalCacheTest {
+    public static final Long DEFAULT_ID_ONE = 1L;
+    public static final String USER_EMAIL = "bob@example.com";
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private UserRepository userRepository;
+    @MockBean
+    private RoleRepository roleRepository;
+    @MockBean
+    private UserMapper userMapper;
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.PRINCIPALS_CACHE).clear();
+        user = new User();
+        user.setId(DEFAULT_ID_ONE);
+        user.setEmail(USER_EMAIL);
+        when(userRepository.findByEmail(USER_EMAIL)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    @DisplayName("Loads a principal from the database once and serves repeats from cache")
+    void loadUserByUsername_calledTwice_queryDatabaseOnce() {
+        UserDetails first = userDetailsService.loadUserByUsername(USER_EMAIL);
+        UserDetails second = userDetailsService.loadUserByUsername(USER_EMAIL);
+
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByEmail(USER_EMAIL);
+        Cache<?, ?> nativeCache = (Cache<?, ?>) cacheManager
+                .getCache(CacheConfig.PRINCIPALS_CACHE).getNativeCache();
+        assertEquals(1, nativeCache.stats().hitCount());
+        assertEquals(1, nativeCache.stats().missCount());
+    }
+
+    @Test
+    @DisplayName("Password update evicts the cached principal")
+    void updatePasswordByUser_cachedPrincipal_evictPrincipal() {
+        when(userRepository.findById(DEFAULT_ID_ONE)).thenReturn(Optional.of(user));
+        UserUpdatePasswordDto updatePasswordDto = new UserUpdatePasswordDto();
+        updatePasswordDto.setPassword("newPassword123");
+
+        userDetailsService.loadUserByUsername(USER_EMAIL);
+        userService.updatePasswordByUser(user, updatePasswordDto);
+        userDetailsService.loadUserByUsername(USER_EMAIL);
+
+        verify(userRepository, times(2)).findByEmail(USER_EMAIL);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.ebooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.ebooking.exception.exceptions.PaymentGatewayException;
+import com.example.ebooking.service.payment.gateway.PaymentGateway;
+import com.example.ebooking.service.payment.gateway.StripePaymentGateway;
+import com.example.ebooking.util.MutableClock;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.checkout.SessionCreateParams;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class StripePaymentGatewayTest {
+    private static final int FAILURE_THRESHOLD = 2;
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+    private static final PaymentGateway.CheckoutRequest REQUEST =
+            new PaymentGateway.CheckoutRequest(BigDecimal.valueOf(120), "usd",
+                    "http://localhost/success", "http://localhost/cancel");
+
+    private final List<SessionCreateParams> calls = new ArrayList<>();
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    @DisplayName("Creates a checkout session with the amount in cents")
+    void createCheckoutSession_stripeAvailable_returnSession() {
+        Session session = new Session();
+        session.setId("cs_test");
+        session.setUrl("https://checkout.stripe.com/cs_test");
+        session.setExpiresAt(1_000L);
+        StripePaymentGateway gateway = gateway(session);
+
+        PaymentGateway.CheckoutSession actual = gateway.createCheckoutSession(REQUEST);
+
+        assertEquals(new PaymentGateway.CheckoutSession("cs_test",
+                "https://checkout.stripe.com/cs_test", 1_000L), actual);
+        assertEquals(12_000L, calls.get(0).getLineItems().get(0).getPriceData()
+                .getUnitAmount());
+    }
+
+    @Test
+    @DisplayName("Stops calling Stripe once consecutive failures open the circuit")
+    void createCheckoutSession_stripeFailing_failFastWhenOpen() {
+        StripePaymentGateway gateway = gateway(new ApiConnectionException("Read timed out"));
+
+        for (int i = 0; i < FAILURE_THRESHOLD + 1; i++) {
+            assertThrows(PaymentGatewayException.class,
+                    () -> gateway.createCheckoutSession(REQUEST));
+        }
+
+        assertEquals(FAILURE_THRESHOLD, calls.size());
+    }
+
+    @Test
+    @DisplayName("Rejected requests are Stripe answers and do not open the circuit")
+    void createCheckoutSession_clientErrors_keepCircuitClosed() {
+        StripePaymentGateway gateway = gateway(new InvalidRequestException(
+                "No such price", "price", "req_1", "resource_missing", 400, null));
+
+        for (int i = 0; i < FAILURE_THRESHOLD + 1; i++) {
+            assertThrows(PaymentGatewayException.class,
+                    () -> gateway.createCheckoutSession(REQUEST));
+        }
+
+        assertEquals(FAILURE_THRESHOLD + 1, calls.size());
+    }
+
+    @Test
+    @DisplayName("Trial call failing with a non-Stripe error opens the circuit again")
+    void createCheckoutSession_trialThrowsRuntimeException_reopenCircuit() {
+        List<Object> outcomes = new ArrayList<>();
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            outcomes.add(new ApiConnectionException("Read timed out"));
+        }
+        outcomes.add(new IllegalStateException("Unexpected response"));
+        StripePaymentGateway gateway = gateway(outcomes.toArray());
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThrows(PaymentGatewayException.class,
+                    () -> gateway.createCheckoutSession(REQUEST));
+        }
+
+        clock.advance(OPEN_DURATION);
+        assertThrows(IllegalStateException.class,
+                () -> gateway.createCheckoutSession(REQUEST));
+        assertThrows(PaymentGatewayException.class,
+                () -> gateway.createCheckoutSession(REQUEST));
+        assertEquals(FAILURE_THRESHOLD + 1, calls.size());
+
+        clock.advance(OPEN_DURATION);
+        assertThrows(IllegalStateException.class,
+                () -> gateway.createCheckoutSession(REQUEST));
+        assertEquals(FAILURE_THRESHOLD + 2, calls.size());
+    }
+
+    /**
+     * Gateway whose Stripe calls return or throw the given outcomes in order, repeating
+     * the last one.
+     */
+    private StripePaymentGateway gateway(Object... outcomes) {
+        return new StripePaymentGateway(clock, "sk_test", Duration.ofSeconds(2),
+                Duration.ofSeconds(10), FAILURE_THRESHOLD, OPEN_DURATION) {
+            @Override
+            protected Session create(SessionCreateParams params, RequestOptions options)
+                    throws StripeException {
+                calls.add(params);
+                Object outcome = outcomes[Math.min(calls.size(), outcomes.length) - 1];
+                if (outcome instanceof StripeException stripeException) {
+                    throw stripeException;
+                }
+                if (outcome instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                return (Session) outcome;
+            }
+        };
+    }
+}
@@ -2,17 +2,21 @@ package com.example.ebooking.service;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.mockStatic;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.example.ebooking.dto.booking.BookingResponseDto;
+import com.example.ebooking.dto.pagination.CursorPage;
 import com.example.ebooking.dto.payment.CreatePaymentSessionDto;
 import com.example.ebooking.dto.payment.PaymentResponseDto;
+import com.example.ebooking.dto.payment.PaymentSummaryDto;
 import com.example.ebooking.dto.payment.PaymentWithoutSessionDto;
 import com.example.ebooking.exception.exceptions.EntityNotFoundException;
 import com.example.ebooking.exception.exceptions.PaymentStatusException;
@@ -21,28 +25,35 @@ import com.example.ebooking.mapper.PaymentMapper;
 import com.example.ebooking.model.Accommodation;
 import com.example.ebooking.model.Booking;
 import com.example.ebooking.model.Payment;
+import com.example.ebooking.model.User;
 import com.example.ebooking.repository.booking.BookingRepository;
 import com.example.ebooking.repository.payment.PaymentRepository;
-import com.example.ebooking.service.notification.NotificationService;
+import com.example.ebooking.service.pagination.Cursors;
+import com.example.ebooking.service.payment.PaymentSessionStore;
 import com.example.ebooking.service.payment.StripePaymentService;
-import com.stripe.exception.StripeException;
-import com.stripe.model.checkout.Session;
-import com.stripe.param.checkout.SessionCreateParams;
+import com.example.ebooking.service.payment.gateway.PaymentGateway;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 public class StripePaymentServiceTest {
@@ -51,6 +62,8 @@ public class StripePaymentServiceTest {
     
     public static final String SESSION_ID = "session_id_111";
     public static final String SESSION_URL = "https://stripe.com/session/123";
+    public static final Instant NOW = Instant.parse("2030-01-01T00:00:00Z");
+    public static final Duration REUSE_MIN_VALIDITY = Duration.ofMinutes(5);
     @InjectMocks
     private StripePaymentService paymentService;
 
@@ -63,38 +76,46 @@ public class StripePaymentServiceTest {
     @Mock
     private PaymentMapper paymentMapper;
     @Mock
-    private NotificationService notificationService;
-    @Mock
-    private Session session;
+    private PaymentGateway paymentGateway;
+    @Spy
+    private Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @BeforeEach
+    void setUp() {
+        PaymentSessionStore sessionStore = new PaymentSessionStore(paymentRepository,
+                bookingRepository, paymentMapper, clock);
+        ReflectionTestUtils.setField(sessionStore, "reuseMinValidity", REUSE_MIN_VALIDITY);
+        ReflectionTestUtils.setField(paymentService, "sessionStore", sessionStore);
+    }
 
     @Test
     @DisplayName("Returns all payments by user")
     void getPaymentsForUser_withValidUserId_returnPayments() {
-        Payment payment = new Payment();
-        payment.setId(DEFAULT_ID_ONE);
-        payment.setStatus(Payment.PaymentStatus.PENDING);
+        PaymentSummaryDto payment = new PaymentSummaryDto(DEFAULT_ID_ONE, DEFAULT_ID_ONE,
+                "session", "url", BigDecimal.TEN, Payment.PaymentStatus.PENDING);
 
         PaymentResponseDto responseDto = new PaymentResponseDto();
-        responseDto.setId(payment.getId());
-        responseDto.setStatus(payment.getStatus().toString());
+        responseDto.setId(payment.id());
+        responseDto.setStatus(payment.status().toString());
 
         List<PaymentResponseDto> expected = List.of(responseDto);
 
         Pageable pageable = PageRequest.of(0, 10);
-        List<Payment> payments = List.of(payment);
-        Page<Payment> paymentPage = new PageImpl<>(payments, pageable, payments.size());
+        List<PaymentSummaryDto> payments = List.of(payment);
+        Slice<PaymentSummaryDto> paymentSlice = new SliceImpl<>(payments, pageable, false);
 
-        when(paymentRepository.findByBookingUserId(DEFAULT_ID_ONE, pageable))
-                .thenReturn(paymentPage);
+        when(paymentRepository.findSummariesByUserId(DEFAULT_ID_ONE, 0L, pageable))
+                .thenReturn(paymentSlice);
         when(paymentMapper.toDtoList(payments)).thenReturn(expected);
 
-        List<PaymentResponseDto> actual = paymentService.getPaymentsForUser(DEFAULT_ID_ONE,
-                pageable);
+        CursorPage<PaymentResponseDto> actual = paymentService.getPaymentsForUser(
+                DEFAULT_ID_ONE, null, 10);
 
-        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.size(), actual.content().size());
+        assertNull(actual.nextCursor());
 
         verify(paymentRepository, times(DEFAULT_TIMES))
-                .findByBookingUserId(DEFAULT_ID_ONE, pageable);
+                .findSummariesByUserId(DEFAULT_ID_ONE, 0L, pageable);
         verify(paymentMapper, times(DEFAULT_TIMES)).toDtoList(payments);
     }
 
@@ -104,18 +125,19 @@ public class StripePaymentServiceTest {
         Long userId = DEFAULT_ID_ONE;
 
         Pageable pageable = PageRequest.of(0, 10);
-        List<Payment> payments = List.of();
-        Page<Payment> paymentPage = new PageImpl<>(payments, pageable, payments.size());
+        List<PaymentSummaryDto> payments = List.of();
+        Slice<PaymentSummaryDto> paymentSlice = new SliceImpl<>(payments, pageable, false);
 
-        when(paymentRepository.findByBookingUserId(userId, pageable))
-                .thenReturn(paymentPage);
+        when(paymentRepository.findSummariesByUserId(userId, 0L, pageable))
+                .thenReturn(paymentSlice);
 
-        assertThatThrownBy(() -> paymentService.getPaymentsForUser(userId, pageable))
+        assertThatThrownBy(() -> paymentService.getPaymentsForUser(userId, null, 10))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining("Payments not found by user id: "
                         + userId);
 
-        verify(paymentRepository, times(DEFAULT_TIMES)).findByBookingUserId(userId, pageable);
+        verify(paymentRepository, times(DEFAULT_TIMES))
+                .findSummariesByUserId(userId, 0L, pageable);
     }
 
     @Test
@@ -123,17 +145,14 @@ public class StripePaymentServiceTest {
     void getPaymentsForAdmin_withValidId_returnAllPayment() {
         Long userId = DEFAULT_ID_ONE;
 
-        Payment firstPayment = new Payment();
-        firstPayment.setId(DEFAULT_ID_ONE);
-        firstPayment.setStatus(Payment.PaymentStatus.PENDING);
-
-        Payment secondPayment = new Payment();
-        secondPayment.setId(2L);
-        secondPayment.setStatus(Payment.PaymentStatus.PENDING);
+        PaymentSummaryDto firstPayment = new PaymentSummaryDto(DEFAULT_ID_ONE, userId,
+                "first", "url", BigDecimal.TEN, Payment.PaymentStatus.PENDING);
+        final PaymentSummaryDto secondPayment = new PaymentSummaryDto(2L, userId,
+                "second", "url", BigDecimal.TEN, Payment.PaymentStatus.PENDING);
 
         PaymentResponseDto firstDto = new PaymentResponseDto();
         firstDto.setId(firstDto.getId());
-        firstDto.setStatus(firstPayment.getStatus().toString());
+        firstDto.setStatus(firstPayment.status().toString());
 
         PaymentResponseDto secondDto = new PaymentResponseDto();
         secondDto.setId(secondDto.getId());
@@ -141,19 +160,19 @@ public class StripePaymentServiceTest {
 
         List<PaymentResponseDto> expected = List.of(firstDto, secondDto);
 
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Payment> payments = List.of(firstPayment, secondPayment);
-        Page<Payment> paymentPage = new PageImpl<>(payments, pageable, payments.size());
+        Pageable pageable = PageRequest.of(0, 2);
+        List<PaymentSummaryDto> payments = List.of(firstPayment, secondPayment);
+        Slice<PaymentSummaryDto> paymentSlice = new SliceImpl<>(payments, pageable, true);
 
-        when(paymentRepository.findAll(pageable))
-                .thenReturn(paymentPage);
+        when(paymentRepository.findSummaries(0L, pageable)).thenReturn(paymentSlice);
         when(paymentMapper.toDtoList(payments)).thenReturn(expected);
 
-        List<PaymentResponseDto> actual = paymentService.getPaymentsForAdmin(pageable);
+        CursorPage<PaymentResponseDto> actual = paymentService.getPaymentsForAdmin(null, 2);
 
-        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.size(), actual.content().size());
+        assertEquals(secondPayment.id(), Cursors.decode(actual.nextCursor()));
 
-        verify(paymentRepository, times(DEFAULT_TIMES)).findAll(pageable);
+        verify(paymentRepository, times(DEFAULT_TIMES)).findSummaries(0L, pageable);
         verify(paymentMapper, times(DEFAULT_TIMES)).toDtoList(payments);
     }
 
@@ -174,7 +193,7 @@ public class StripePaymentServiceTest {
 
     @Test
     @DisplayName("Create session with valid id")
-    void createPaymentSessionDto_withValidId_returnDto() throws StripeException {
+    void createPaymentSessionDto_withValidId_returnDto() {
         Long bookingId = DEFAULT_ID_ONE;
 
         Booking booking = new Booking();
@@ -183,6 +202,7 @@ public class StripePaymentServiceTest {
         booking.getAccommodation().setDailyRate(BigDecimal.valueOf(100));
         booking.setCheckInDate(LocalDateTime.of(2025, 2, 23, 14, 0, 0));
         booking.setCheckOutDate(LocalDateTime.of(2025, 2, 24, 14, 0, 0));
+        booking.setUser(new User());
 
         String sessionUrl = SESSION_URL;
         CreatePaymentSessionDto createPaymentSessionDto = new CreatePaymentSessionDto();
@@ -190,13 +210,9 @@ public class StripePaymentServiceTest {
 
         String sessionId = SESSION_ID;
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(session.getId()).thenReturn(sessionId);
-        when(session.getUrl()).thenReturn(sessionUrl);
-        when(session.getExpiresAt()).thenReturn(System.currentTimeMillis() / 1000 + 3600);
-
-        MockedStatic<Session> sessionMock = mockStatic(Session.class);
-        sessionMock.when(() -> Session.create(any(SessionCreateParams.class)))
-                .thenReturn(session);
+        when(paymentGateway.createCheckoutSession(any(PaymentGateway.CheckoutRequest.class)))
+                .thenReturn(new PaymentGateway.CheckoutSession(sessionId, sessionUrl,
+                        NOW.getEpochSecond() + 3600));
 
         Payment payment = new Payment();
         when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
@@ -207,15 +223,51 @@ public class StripePaymentServiceTest {
 
         assertEquals(expected.getSessionUrl(), expected.getSessionUrl());
 
-        sessionMock.close();
-
-        verify(paymentRepository, times(DEFAULT_TIMES)).save(any(Payment.class));
+        verify(paymentGateway, times(DEFAULT_TIMES)).createCheckoutSession(argThat(request ->
+                request.amount().compareTo(BigDecimal.valueOf(100)) == 0));
+        verify(paymentRepository, times(DEFAULT_TIMES)).save(argThat(saved ->
+                saved.getUser() == booking.getUser()));
         verify(paymentMapper, times(DEFAULT_TIMES)).toPaymentResponseDto(any(Payment.class));
     }
 
     @Test
-    @DisplayName("Processing a successful payment with a valid id")
-    void processSuccessfulPayment_withValidSessionId_returnDto() throws StripeException {
+    @DisplayName("Returns the live session of the booking instead of creating a new one")
+    void createPaymentSession_withLivePendingSession_reuseSession() {
+        Long bookingId = DEFAULT_ID_ONE;
+
+        Booking booking = new Booking();
+        booking.setId(bookingId);
+        booking.setAccommodation(new Accommodation());
+        booking.getAccommodation().setDailyRate(BigDecimal.valueOf(100));
+        booking.setCheckInDate(LocalDateTime.of(2025, 2, 23, 14, 0, 0));
+        booking.setCheckOutDate(LocalDateTime.of(2025, 2, 25, 14, 0, 0));
+
+        Payment payment = new Payment();
+        payment.setSessionUrl(SESSION_URL);
+        payment.setStatus(Payment.PaymentStatus.PENDING);
+
+        CreatePaymentSessionDto expected = new CreatePaymentSessionDto();
+        expected.setSessionUrl(SESSION_URL);
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(paymentRepository.findReusableSession(eq(bookingId),
+                argThat(amount -> amount.compareTo(BigDecimal.valueOf(200)) == 0),
+                eq(Payment.PaymentStatus.PENDING),
+                eq(NOW.plus(REUSE_MIN_VALIDITY).getEpochSecond()), eq(Limit.of(1))))
+                .thenReturn(Optional.of(payment));
+        when(paymentMapper.toPaymentResponseDto(payment)).thenReturn(expected);
+
+        CreatePaymentSessionDto actual = paymentService.createPaymentSession(bookingId);
+
+        assertEquals(expected, actual);
+
+        verify(paymentGateway, never()).createCheckoutSession(any());
+        verify(paymentRepository, never()).save(any(Payment.class));
+    }
+
+    @Test
+    @DisplayName("Returns the payment state without confirming it on redirect")
+    void getPaymentStatus_withValidSessionId_returnDto() {
         Booking booking = new Booking();
         booking.setId(DEFAULT_ID_ONE);
         booking.setStatus(Booking.Status.PENDING);
@@ -223,33 +275,25 @@ public class StripePaymentServiceTest {
         Payment payment = new Payment();
         payment.setId(DEFAULT_ID_ONE);
         payment.setSessionId(SESSION_ID);
-        payment.setStatus(Payment.PaymentStatus.PAID);
+        payment.setStatus(Payment.PaymentStatus.PENDING);
         payment.setBooking(booking);
 
         PaymentWithoutSessionDto expected = new PaymentWithoutSessionDto(
                 booking.getId(),
-                Payment.PaymentStatus.PAID,
+                Payment.PaymentStatus.PENDING,
                 BigDecimal.valueOf(100));
 
         when(paymentRepository.findBySessionId(anyString()))
                 .thenReturn(Optional.of(payment));
-        doNothing().when(paymentRepository).updateStatus(payment.getId(),
-                Payment.PaymentStatus.PAID);
-        doNothing().when(bookingRepository).updateStatus(booking.getId(),
-                Booking.Status.CONFIRMED);
         when(paymentMapper.toPaymentWithoutSessionDto(payment)).thenReturn(expected);
 
-        PaymentWithoutSessionDto actual = paymentService.processSuccessfulPayment(SESSION_ID);
+        PaymentWithoutSessionDto actual = paymentService.getPaymentStatus(SESSION_ID);
 
         assertEquals(expected, actual);
 
-        verify(notificationService, times(DEFAULT_TIMES))
-                .sendPaymentSuccessMessage(payment);
         verify(paymentRepository, times(DEFAULT_TIMES)).findBySessionId(anyString());
-        verify(paymentRepository, times(DEFAULT_TIMES))
-                .updateStatus(payment.getId(), Payment.PaymentStatus.PAID);
-        verify(bookingRepository, times(DEFAULT_TIMES))
-                .updateStatus(booking.getId(), Booking.Status.CONFIRMED);
+        verify(paymentRepository, never()).updateStatus(any(), any());
+        verify(bookingRepository, never()).updateStatus(any(), any());
         verify(paymentMapper, times(DEFAULT_TIMES)).toPaymentWithoutSessionDto(payment);
     }
 
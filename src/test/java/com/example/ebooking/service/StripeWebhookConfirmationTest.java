@@ -0,0 +1,106 @@
+package com.example.ebooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.ebooking.config.CustomMyPostgresContainer;
+import com.example.ebooking.model.Booking;
+import com.example.ebooking.model.StripeWebhookEvent;
+import com.example.ebooking.repository.booking.BookingRepository;
+import com.example.ebooking.repository.payment.StripeWebhookEventRepository;
+import com.example.ebooking.service.inventory.AccommodationInventoryService;
+import com.example.ebooking.service.payment.StripeWebhookProcessor;
+import com.example.ebooking.service.payment.StripeWebhookService;
+import com.example.ebooking.service.scheduling.ScheduledJobs;
+import com.example.ebooking.util.StubStripeWebhook;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import javax.sql.DataSource;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest
+public class StripeWebhookConfirmationTest {
+    public static final Long DEFAULT_ID_ONE = 1L;
+    public static final String SESSION_ID = "cs_expired_booking";
+
+    @Autowired
+    private StripeWebhookProcessor webhookProcessor;
+
+    @Autowired
+    private StripeWebhookEventRepository eventRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private AccommodationInventoryService inventoryService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private ScheduledJobs scheduledJobs;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        CustomMyPostgresContainer container = CustomMyPostgresContainer.getInstance();
+        container.start();
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        executeScript("scripts/service/payment/delete-payments-bookings-and-accommodation.sql");
+        executeScript("scripts/service/booking/insert-accommodation.sql");
+        executeScript("scripts/service/payment/insert-expired-booking-and-payment.sql");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executeScript("scripts/service/payment/delete-payments-bookings-and-accommodation.sql");
+    }
+
+    @Test
+    @DisplayName("Paid checkout of an expired booking confirms it and takes its nights back")
+    void process_paidSessionOfExpiredBooking_reserveNightsInLedger() {
+        LocalDateTime checkIn = LocalDateTime.of(2099, 1, 20, 14, 0);
+        LocalDateTime checkOut = LocalDateTime.of(2099, 1, 23, 11, 0);
+        assertEquals(0, inventoryService.getMaxBookedUnits(DEFAULT_ID_ONE, checkIn, checkOut));
+
+        StripeWebhookEvent event = new StripeWebhookEvent();
+        event.setEventId("evt_1");
+        event.setType(StripeWebhookService.CHECKOUT_SESSION_COMPLETED);
+        event.setPayload(StubStripeWebhook.checkoutSessionEvent(event.getEventId(),
+                event.getType(), SESSION_ID, "paid"));
+        event.setStatus(StripeWebhookEvent.Status.PENDING);
+        event.setReceivedAt(LocalDateTime.now());
+        eventRepository.save(event);
+
+        int processed = webhookProcessor.process();
+
+        assertEquals(1, processed);
+        assertEquals(Booking.Status.CONFIRMED,
+                bookingRepository.findById(DEFAULT_ID_ONE).orElseThrow().getStatus());
+        assertEquals(1, inventoryService.getMaxBookedUnits(DEFAULT_ID_ONE, checkIn, checkOut));
+    }
+
+    @SneakyThrows
+    private void executeScript(String path) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(path));
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.ebooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ebooking.model.Booking;
+import com.example.ebooking.model.Payment;
+import com.example.ebooking.model.StripeWebhookEvent;
+import com.example.ebooking.repository.booking.BookingRepository;
+import com.example.ebooking.repository.payment.PaymentRepository;
+import com.example.ebooking.repository.payment.StripeWebhookEventRepository;
+import com.example.ebooking.service.inventory.AccommodationInventoryService;
+import com.example.ebooking.service.notification.NotificationService;
+import com.example.ebooking.service.payment.StripeWebhookProcessor;
+import com.example.ebooking.service.payment.StripeWebhookService;
+import com.example.ebooking.util.StubStripeWebhook;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class StripeWebhookProcessorTest {
+    @InjectMocks
+    private StripeWebhookProcessor webhookProcessor;
+
+    @Mock
+    private StripeWebhookEventRepository eventRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private AccommodationInventoryService inventoryService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private Clock clock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(webhookProcessor, "batchSize", 100);
+    }
+
+    @Test
+    @DisplayName("Confirms paid sessions and expires expired ones with one update each")
+    void process_paidAndExpiredEvents_updateInBulk() {
+        final LocalDateTime now = LocalDateTime.now(clock);
+        List<StripeWebhookEvent> events = List.of(
+                event(1L, StripeWebhookService.CHECKOUT_SESSION_COMPLETED, "cs_paid", "paid"),
+                event(2L, StripeWebhookService.CHECKOUT_SESSION_COMPLETED, "cs_paid", "paid"),
+                event(3L, StripeWebhookService.CHECKOUT_SESSION_COMPLETED, "cs_async",
+                        "unpaid"),
+                event(4L, StripeWebhookService.CHECKOUT_SESSION_EXPIRED, "cs_old", "unpaid"));
+        Payment payment = payment(10L, 20L);
+        when(eventRepository.findPendingForUpdate(100)).thenReturn(events);
+        when(paymentRepository.findBySessionIdInAndStatusNot(Set.of("cs_paid"),
+                Payment.PaymentStatus.PAID)).thenReturn(List.of(payment));
+        when(bookingRepository.lockStatusesForUpdate(Set.of(20L)))
+                .thenReturn(List.of(bookingStatus(20L, Booking.Status.PENDING)));
+
+        int processed = webhookProcessor.process();
+
+        assertEquals(4, processed);
+        verify(inventoryService, never()).reserveIfAvailable(any());
+        verify(paymentRepository).updateStatusForPayments(Set.of(10L),
+                Payment.PaymentStatus.PAID);
+        verify(bookingRepository).updateStatusForBookings(Set.of(20L),
+                Booking.Status.CONFIRMED);
+        verify(notificationService).sendPaymentSuccessMessage(payment);
+        assertEquals(Payment.PaymentStatus.PAID, payment.getStatus());
+        verify(paymentRepository).updateStatusBySessionIds(Set.of("cs_old"),
+                Payment.PaymentStatus.PENDING, Payment.PaymentStatus.EXPIRED);
+        verify(eventRepository).markProcessed(List.of(1L, 2L, 3L, 4L),
+                StripeWebhookEvent.Status.PROCESSED, now);
+    }
+
+    @Test
+    @DisplayName("Redelivered event for an already paid session changes nothing")
+    void process_alreadyPaidSession_skipUpdates() {
+        when(eventRepository.findPendingForUpdate(100)).thenReturn(List.of(
+                event(1L, StripeWebhookService.CHECKOUT_SESSION_COMPLETED, "cs_1", "paid")));
+        when(paymentRepository.findBySessionIdInAndStatusNot(Set.of("cs_1"),
+                Payment.PaymentStatus.PAID)).thenReturn(List.of());
+
+        webhookProcessor.process();
+
+        verify(paymentRepository, never()).updateStatusForPayments(anySet(), any());
+        verify(bookingRepository, never()).updateStatusForBookings(anySet(), any());
+        verify(notificationService, never()).sendPaymentSuccessMessage(any());
+    }
+
+    @Test
+    @DisplayName("Paid session of an expired booking takes its nights back before confirming")
+    void process_paidSessionOfExpiredBooking_reserveAndConfirm() {
+        Payment payment = payment(10L, 20L);
+        List<Booking> expired = List.of(payment.getBooking());
+        when(eventRepository.findPendingForUpdate(100)).thenReturn(List.of(
+                event(1L, StripeWebhookService.CHECKOUT_SESSION_COMPLETED, "cs_1", "paid")));
+        when(paymentRepository.findBySessionIdInAndStatusNot(Set.of("cs_1"),
+                Payment.PaymentStatus.PAID)).thenReturn(List.of(payment));
+        when(bookingRepository.lockStatusesForUpdate(Set.of(20L)))
+                .thenReturn(List.of(bookingStatus(20L, Booking.Status.EXPIRED)));
+        when(bookingRepository.findAllById(Set.of(20L))).thenReturn(expired);
+        when(inventoryService.reserveIfAvailable(expired)).thenReturn(Set.of(20L));
+
+        webhookProcessor.process();
+
+        InOrder order = inOrder(inventoryService, bookingRepository);
+        order.verify(inventoryService).reserveIfAvailable(expired);
+        order.verify(bookingRepository).updateStatusForBookings(Set.of(20L),
+                Booking.Status.CONFIRMED);
+        verify(notificationService).sendPaymentSuccessMessage(payment);
+    }
+
+    @Test
+    @DisplayName("Paid session of an expired booking whose nights were sold is flagged for refund")
+    void process_paidSessionOfExpiredBookingWithoutNights_sendRefundAlert() {
+        Payment payment = payment(10L, 20L);
+        List<Booking> expired = List.of(payment.getBooking());
+        when(eventRepository.findPendingForUpdate(100)).thenReturn(List.of(
+                event(1L, StripeWebhookService.CHECKOUT_SESSION_COMPLETED, "cs_1", "paid")));
+        when(paymentRepository.findBySessionIdInAndStatusNot(Set.of("cs_1"),
+                Payment.PaymentStatus.PAID)).thenReturn(List.of(payment));
+        when(bookingRepository.lockStatusesForUpdate(Set.of(20L)))
+                .thenReturn(List.of(bookingStatus(20L, Booking.Status.EXPIRED)));
+        when(bookingRepository.findAllById(Set.of(20L))).thenReturn(expired);
+        when(inventoryService.reserveIfAvailable(expired)).thenReturn(Set.of());
+
+        webhookProcessor.process();
+
+        verify(bookingRepository, never()).updateStatusForBookings(anySet(), any());
+        verify(paymentRepository).updateStatusForPayments(Set.of(10L),
+                Payment.PaymentStatus.PAID);
+        verify(notificationService).sendPaymentRefundRequiredMessage(payment);
+        verify(notificationService, never()).sendPaymentSuccessMessage(any());
+    }
+
+    @Test
+    @DisplayName("Paid session of a canceled or deleted booking is flagged for refund")
+    void process_paidSessionOfInactiveBooking_sendRefundAlert() {
+        Payment canceled = payment(10L, 20L);
+        Payment deleted = payment(11L, 21L);
+        when(eventRepository.findPendingForUpdate(100)).thenReturn(List.of(
+                event(1L, StripeWebhookService.CHECKOUT_SESSION_COMPLETED, "cs_1", "paid")));
+        when(paymentRepository.findBySessionIdInAndStatusNot(Set.of("cs_1"),
+                Payment.PaymentStatus.PAID)).thenReturn(List.of(canceled, deleted));
+        when(bookingRepository.lockStatusesForUpdate(Set.of(20L, 21L)))
+                .thenReturn(List.of(bookingStatus(20L, Booking.Status.CANCELED)));
+
+        webhookProcessor.process();
+
+        verify(inventoryService, never()).reserveIfAvailable(any());
+        verify(bookingRepository, never()).updateStatusForBookings(anySet(), any());
+        verify(paymentRepository).updateStatusForPayments(Set.of(10L, 11L),
+                Payment.PaymentStatus.PAID);
+        verify(notificationService).sendPaymentRefundRequiredMessage(canceled);
+        verify(notificationService).sendPaymentRefundRequiredMessage(deleted);
+        verify(notificationService, never()).sendPaymentSuccessMessage(any());
+    }
+
+    @Test
+    @DisplayName("Unparsable events are marked as failed with the reason")
+    void process_malformedPayload_markFailed() {
+        final LocalDateTime now = LocalDateTime.now(clock);
+        StripeWebhookEvent malformed = event(1L,
+                StripeWebhookService.CHECKOUT_SESSION_COMPLETED, "cs_1", "paid");
+        malformed.setPayload("{not json");
+        StripeWebhookEvent withoutSession = event(2L,
+                StripeWebhookService.CHECKOUT_SESSION_COMPLETED, "cs_2", "paid");
+        withoutSession.setPayload("{\"data\":{\"object\":{}}}");
+        when(eventRepository.findPendingForUpdate(100))
+                .thenReturn(List.of(malformed, withoutSession));
+
+        int processed = webhookProcessor.process();
+
+        assertEquals(0, processed);
+        verify(eventRepository).markFailed(eq(1L), startsWith("Can't parse Stripe event: "),
+                eq(now));
+        verify(eventRepository).markFailed(2L, "Stripe event has no checkout session id", now);
+        verify(eventRepository, never()).markProcessed(anyList(), any(), any());
+        verify(paymentRepository, never()).findBySessionIdInAndStatusNot(anySet(), any());
+    }
+
+    private StripeWebhookEvent event(Long id, String type, String sessionId,
+                                     String paymentStatus) {
+        StripeWebhookEvent event = new StripeWebhookEvent();
+        event.setId(id);
+        event.setEventId("evt_" + id);
+        event.setType(type);
+        event.setPayload(StubStripeWebhook.checkoutSessionEvent(event.getEventId(), type,
+                sessionId, paymentStatus));
+        event.setStatus(StripeWebhookEvent.Status.PENDING);
+        return event;
+    }
+
+    private BookingRepository.BookingStatusView bookingStatus(Long id,
+                                                             Booking.Status status) {
+        return new BookingRepository.BookingStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getStatus() {
+                return status.name();
+            }
+        };
+    }
+
+    private Payment payment(Long id, Long bookingId) {
+        Booking booking = new Booking();
+        booking.setId(bookingId);
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setBooking(booking);
+        payment.setStatus(Payment.PaymentStatus.PENDING);
+        return payment;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.ebooking.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ebooking.exception.exceptions.WebhookSignatureException;
+import com.example.ebooking.repository.payment.StripeWebhookEventRepository;
+import com.example.ebooking.service.payment.StripeWebhookService;
+import com.example.ebooking.util.StubStripeWebhook;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class StripeWebhookServiceTest {
+    private static final String SECRET = "whsec_test";
+    private static final Instant NOW = Instant.parse("2030-01-01T00:00:00Z");
+
+    @InjectMocks
+    private StripeWebhookService webhookService;
+
+    @Mock
+    private StripeWebhookEventRepository eventRepository;
+
+    @Spy
+    private Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    private final StubStripeWebhook stripe = new StubStripeWebhook(SECRET);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(webhookService, "webhookSecret", SECRET);
+    }
+
+    @Test
+    @DisplayName("Stores a signed checkout event in the inbox")
+    void receive_signedEvent_storeEvent() {
+        String payload = StubStripeWebhook.checkoutSessionEvent("evt_1",
+                StripeWebhookService.CHECKOUT_SESSION_COMPLETED, "cs_1", "paid");
+        when(eventRepository.insertIfAbsent("evt_1",
+                StripeWebhookService.CHECKOUT_SESSION_COMPLETED, payload,
+                LocalDateTime.now(clock))).thenReturn(1);
+
+        boolean stored = webhookService.receive(payload,
+                stripe.sign(payload, NOW.getEpochSecond()));
+
+        assertTrue(stored);
+    }
+
+    @Test
+    @DisplayName("Acknowledges a redelivered event without storing it again")
+    void receive_duplicateEvent_returnFalse() {
+        String payload = StubStripeWebhook.checkoutSessionEvent("evt_1",
+                StripeWebhookService.CHECKOUT_SESSION_EXPIRED, "cs_1", "unpaid");
+        when(eventRepository.insertIfAbsent(anyString(), anyString(), anyString(),
+                any(LocalDateTime.class))).thenReturn(0);
+
+        assertFalse(webhookService.receive(payload,
+                stripe.sign(payload, NOW.getEpochSecond())));
+    }
+
+    @Test
+    @DisplayName("Ignores event types the application does not handle")
+    void receive_unhandledType_ignoreEvent() {
+        String payload = StubStripeWebhook.checkoutSessionEvent("evt_1",
+                "customer.created", "cus_1", "unpaid");
+
+        assertFalse(webhookService.receive(payload,
+                stripe.sign(payload, NOW.getEpochSecond())));
+
+        verify(eventRepository, never()).insertIfAbsent(anyString(), anyString(),
+                anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Rejects events signed with another secret or outside the tolerance")
+    void receive_invalidSignature_throwException() {
+        String payload = StubStripeWebhook.checkoutSessionEvent("evt_1",
+                StripeWebhookService.CHECKOUT_SESSION_COMPLETED, "cs_1", "paid");
+        String foreignSignature = new StubStripeWebhook("whsec_other")
+                .sign(payload, NOW.getEpochSecond());
+        String staleSignature = stripe.sign(payload, NOW.getEpochSecond() - 3600);
+
+        assertThatThrownBy(() -> webhookService.receive(payload, foreignSignature))
+                .isInstanceOf(WebhookSignatureException.class);
+        assertThatThrownBy(() -> webhookService.receive(payload, staleSignature))
+                .isInstanceOf(WebhookSignatureException.class);
+
+        verify(eventRepository, never()).insertIfAbsent(anyString(), anyString(),
+                anyString(), any(LocalDateTime.class));
+    }
+}
@@ -1,42 +1,53 @@
 package com.example.ebooking.service;
 
-import static java.lang.Thread.sleep;
-import static org.awaitility.Awaitility.await;
-import static org.mockito.Mockito.timeout;
-import static org.mockito.Mockito.times;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
 
-import com.example.ebooking.bot.NotificationTelegramBot;
 import com.example.ebooking.model.Accommodation;
 import com.example.ebooking.model.Booking;
+import com.example.ebooking.model.NotificationOutboxMessage;
+import com.example.ebooking.model.NotificationType;
 import com.example.ebooking.model.Payment;
 import com.example.ebooking.model.User;
+import com.example.ebooking.repository.notification.NotificationOutboxRepository;
 import com.example.ebooking.service.notification.NotificationTemplates;
 import com.example.ebooking.service.notification.TelegramNotificationService;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
 public class TelegramNotificationServiceTest {
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final int TELEGRAM_MAX_MESSAGE_LENGTH = 4096;
+
     @InjectMocks
     private TelegramNotificationService telegramNotificationService;
 
     @Mock
-    private NotificationTelegramBot telegramBot;
+    private NotificationOutboxRepository outboxRepository;
+
+    @Spy
+    private Clock clock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
 
     @Test
     @DisplayName("Send notification when booking created")
-    void sendBookingCreateMessage_withValidInputData_sendMessage() throws InterruptedException {
+    void sendBookingCreateMessage_withValidInputData_sendMessage() {
         Accommodation accommodation = new Accommodation();
         accommodation.setId(1L);
         accommodation.setType(Accommodation.Type.CONDO);
@@ -64,10 +75,7 @@ public class TelegramNotificationServiceTest {
 
         telegramNotificationService.sendBookingCreateMessage(accommodation, user, booking);
 
-        sleep(500);
-
-        verify(telegramBot, timeout(2000).times(1))
-                .sendNotification(messageExpected);
+        verifyEnqueued(NotificationType.BOOKING_CREATED, messageExpected);
     }
 
     @Test
@@ -93,15 +101,46 @@ public class TelegramNotificationServiceTest {
 
         telegramNotificationService.sendBookingCanceledMessage(user, booking);
 
-        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> {
-            verify(telegramBot, times(1)).sendNotification(expectedMessage);
-        });
+        verifyEnqueued(NotificationType.BOOKING_CANCELED, expectedMessage);
+    }
+
+    @Test
+    @DisplayName("Send one notification for a chunk of bookings with a new status")
+    void sendBookingStatusUpdateMessage_withBookingIds_sendOneMessage() {
+        String expectedMessage = String.format(
+                NotificationTemplates.BOOKING_STATUS_UPDATED_TEMPLATE,
+                Booking.Status.CONFIRMED,
+                3, 1L, 7L);
+
+        telegramNotificationService.sendBookingStatusUpdateMessage(Booking.Status.CONFIRMED,
+                List.of(1L, 2L, 7L));
+
+        verifyEnqueued(NotificationType.BOOKING_STATUS_UPDATED, expectedMessage);
+    }
+
+    @Test
+    @DisplayName("Notification for a full chunk of bookings fits one Telegram message")
+    void sendBookingStatusUpdateMessage_withFullChunk_fitTelegramMessage() {
+        List<Long> bookingIds = LongStream.range(0, BULK_CHUNK_SIZE)
+                .map(i -> 1_000_000L + i * 3)
+                .boxed()
+                .toList();
+
+        telegramNotificationService.sendBookingStatusUpdateMessage(Booking.Status.CANCELED,
+                bookingIds);
+
+        ArgumentCaptor<NotificationOutboxMessage> captor =
+                ArgumentCaptor.forClass(NotificationOutboxMessage.class);
+        verify(outboxRepository).save(captor.capture());
+        String message = captor.getValue().getMessage();
+        assertTrue(message.length() <= TELEGRAM_MAX_MESSAGE_LENGTH);
+        assertTrue(message.contains("Bookings updated: " + BULK_CHUNK_SIZE));
+        assertTrue(message.contains("from 1000000 to 1001497"));
     }
 
     @Test
     @DisplayName("Send notification when new accommodation created")
-    void sendAccommodationCreateMessage_withValidInputData_sendMessage() throws
-            InterruptedException {
+    void sendAccommodationCreateMessage_withValidInputData_sendMessage() {
         Accommodation accommodation = new Accommodation();
         accommodation.setId(1L);
         accommodation.setType(Accommodation.Type.HOUSE);
@@ -121,16 +160,12 @@ public class TelegramNotificationServiceTest {
 
         telegramNotificationService.sendAccommodationCreateMessage(accommodation);
 
-        sleep(500);
-
-        verify(telegramBot, timeout(2000).times(1))
-                .sendNotification(expectedMessage);
+        verifyEnqueued(NotificationType.ACCOMMODATION_CREATED, expectedMessage);
     }
 
     @Test
     @DisplayName("Send notification when accommodation released")
-    void sendAccommodationReleaseMessage_withValidInputData_sendMessage() throws
-            InterruptedException {
+    void sendAccommodationReleaseMessage_withValidInputData_sendMessage() {
         List<Long> accommodationIds = List.of(1L, 2L);
 
         String expectedMessage = String.format(
@@ -142,16 +177,12 @@ public class TelegramNotificationServiceTest {
 
         telegramNotificationService.sendAccommodationReleaseMessage(accommodationIds);
 
-        sleep(500);
-
-        verify(telegramBot, timeout(2000).times(1))
-                .sendNotification(expectedMessage);
+        verifyEnqueued(NotificationType.ACCOMMODATION_RELEASED, expectedMessage);
     }
 
     @Test
     @DisplayName("Send notification when payment success")
-    void sendPaymentSuccessMessage_withValidInputData_sendMessage() throws
-            InterruptedException {
+    void sendPaymentSuccessMessage_withValidInputData_sendMessage() {
         Payment payment = new Payment();
         payment.setId(1L);
         payment.setBooking(new Booking());
@@ -169,10 +200,41 @@ public class TelegramNotificationServiceTest {
 
         telegramNotificationService.sendPaymentSuccessMessage(payment);
 
-        sleep(500);
+        verifyEnqueued(NotificationType.PAYMENT_SUCCEEDED, expectedMessage);
+    }
 
-        verify(telegramBot, timeout(2000).times(1))
-                .sendNotification(expectedMessage);
+    @Test
+    @DisplayName("Send notification when a payment has to be refunded")
+    void sendPaymentRefundRequiredMessage_withValidInputData_sendMessage() {
+        Payment payment = new Payment();
+        payment.setId(1L);
+        payment.setBooking(new Booking());
+        payment.getBooking().setId(2L);
+        payment.setSessionId("cs_1");
+        payment.setAmount(BigDecimal.valueOf(150));
+
+        String expectedMessage = String.format(
+                NotificationTemplates.PAYMENT_REFUND_REQUIRED_MESSAGE,
+                payment.getId(),
+                payment.getBooking().getId(),
+                payment.getSessionId(),
+                payment.getAmount()
+        );
+
+        telegramNotificationService.sendPaymentRefundRequiredMessage(payment);
+
+        verifyEnqueued(NotificationType.PAYMENT_REFUND_REQUIRED, expectedMessage);
     }
-}
 
+    private void verifyEnqueued(NotificationType type, String message) {
+        ArgumentCaptor<NotificationOutboxMessage> captor =
+                ArgumentCaptor.forClass(NotificationOutboxMessage.class);
+        verify(outboxRepository).save(captor.capture());
+
+        NotificationOutboxMessage outboxMessage = captor.getValue();
+        assertEquals(type, outboxMessage.getType());
+        assertEquals(message, outboxMessage.getMessage());
+        assertEquals(NotificationOutboxMessage.Status.PENDING, outboxMessage.getStatus());
+        assertEquals(LocalDateTime.now(clock), outboxMessage.getNextAttemptAt());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ebooking.util;
+
+import com.example.ebooking.bot.NotificationBot;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class StubNotificationBot implements NotificationBot {
+    private final List<String> sentMessages = new CopyOnWriteArrayList<>();
+    private final Long adminChatId;
+
+    public StubNotificationBot(Long adminChatId) {
+        this.adminChatId = adminChatId;
+    }
+
+    @Override
+    public Long getAdminChatId() {
+        return adminChatId;
+    }
+
+    @Override
+    public void sendMessage(Long chatId, String messageText) {
+        sentMessages.add(messageText);
+    }
+
+    public List<String> getSentMessages() {
+        return sentMessages;
+    }
+}
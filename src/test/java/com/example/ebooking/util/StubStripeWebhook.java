@@ -0,0 +1,43 @@
+package com.example.ebooking.util;
+
+import com.stripe.net.Webhook;
+import java.security.GeneralSecurityException;
+
+/**
+ * Builds checkout session events and signs them the way Stripe does, so webhook handling
+ * can be exercised without a Stripe account or the Stripe CLI.
+ */
+public class StubStripeWebhook {
+    private final String secret;
+
+    public StubStripeWebhook(String secret) {
+        this.secret = secret;
+    }
+
+    public static String checkoutSessionEvent(String eventId, String type, String sessionId,
+                                              String paymentStatus) {
+        return """
+                {
+                  "id": "%s",
+                  "object": "event",
+                  "type": "%s",
+                  "data": {
+                    "object": {
+                      "id": "%s",
+                      "object": "checkout.session",
+                      "payment_status": "%s"
+                    }
+                  }
+                }""".formatted(eventId, type, sessionId, paymentStatus);
+    }
+
+    public String sign(String payload, long timestamp) {
+        try {
+            String signature = Webhook.Util.computeHmacSha256(secret,
+                    timestamp + "." + payload);
+            return "t=" + timestamp + "," + Webhook.Signature.EXPECTED_SCHEME + "=" + signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Can't sign Stripe payload", e);
+        }
+    }
+}
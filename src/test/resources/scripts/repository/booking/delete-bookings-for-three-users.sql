@@ -0,0 +1 @@
+delete from bookings where id in (1, 2, 3, 4, 5, 6);
@@ -0,0 +1,60 @@
+INSERT INTO bookings (id, check_in_date, check_out_date, accommodation_id, user_id, status, is_deleted)
+VALUES (
+    1,
+    '2025-03-01 14:00:00',
+    '2025-03-02 11:00:00',
+    1,
+    1,
+    'PENDING',
+    false
+);
+INSERT INTO bookings (id, check_in_date, check_out_date, accommodation_id, user_id, status, is_deleted)
+VALUES (
+    2,
+    '2025-03-02 14:00:00',
+    '2025-03-03 11:00:00',
+    1,
+    2,
+    'PENDING',
+    false
+);
+INSERT INTO bookings (id, check_in_date, check_out_date, accommodation_id, user_id, status, is_deleted)
+VALUES (
+    3,
+    '2025-03-03 14:00:00',
+    '2025-03-04 11:00:00',
+    1,
+    3,
+    'PENDING',
+    false
+);
+INSERT INTO bookings (id, check_in_date, check_out_date, accommodation_id, user_id, status, is_deleted)
+VALUES (
+    4,
+    '2025-03-04 14:00:00',
+    '2025-03-05 11:00:00',
+    1,
+    1,
+    'PENDING',
+    false
+);
+INSERT INTO bookings (id, check_in_date, check_out_date, accommodation_id, user_id, status, is_deleted)
+VALUES (
+    5,
+    '2025-03-05 14:00:00',
+    '2025-03-06 11:00:00',
+    1,
+    2,
+    'PENDING',
+    false
+);
+INSERT INTO bookings (id, check_in_date, check_out_date, accommodation_id, user_id, status, is_deleted)
+VALUES (
+    6,
+    '2025-03-06 14:00:00',
+    '2025-03-07 11:00:00',
+    1,
+    3,
+    'PENDING',
+    false
+);
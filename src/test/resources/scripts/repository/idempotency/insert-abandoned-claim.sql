@@ -0,0 +1,11 @@
+delete from idempotency_keys where user_id = 1;
+insert into idempotency_keys (user_id, idempotency_key, request_hash, response, created_at, locked_until, lease_token, expires_at)
+values (1,
+        'abandoned-key',
+        'hash-of-first-request',
+        null,
+        '2030-01-01 00:00:00',
+        '2030-01-01 00:01:00',
+        '9b3e1f4c-0d2a-4a57-8c61-1f0e7d2b6a10',
+        '2030-01-01 00:01:00'
+);
@@ -1,6 +1,7 @@
 delete from payments;
-insert into payments (id, booking_id, session_id, session_url, expired_time, amount, status)
+insert into payments (id, booking_id, user_id, session_id, session_url, expired_time, amount, status)
 values (1,
+        1,
         1,
         '2334',
         'kdfksdmfksflks',
@@ -8,8 +9,9 @@ values (1,
         240,
         'PENDING'
 );
-insert into payments (id, booking_id, session_id, session_url, expired_time, amount, status)
+insert into payments (id, booking_id, user_id, session_id, session_url, expired_time, amount, status)
 values (2,
+        1,
         1,
         '2204024',
         'dkjdfkgjlsk',
@@ -0,0 +1,3 @@
+delete from bookings;
+delete from accommodation_inventory;
+delete from accommodations;
@@ -0,0 +1,5 @@
+delete from stripe_webhook_events;
+delete from payments;
+delete from bookings;
+delete from accommodation_inventory;
+delete from accommodations;
@@ -0,0 +1,20 @@
+INSERT INTO bookings (id, check_in_date, check_out_date, accommodation_id, user_id, status, is_deleted)
+VALUES (
+    1,
+    '2099-01-20 14:00:00',
+    '2099-01-23 11:00:00',
+    1,
+    1,
+    'EXPIRED',
+    false
+);
+insert into payments (id, booking_id, user_id, session_id, session_url, expired_time, amount, status)
+values (1,
+        1,
+        1,
+        'cs_expired_booking',
+        'https://checkout.stripe.com/c/pay/cs_expired_booking',
+        12344553,
+        360,
+        'EXPIRED'
+);